@@ -1,6 +1,8 @@
 package engine;
 
 import game.Game;
+import game.InputReplay;
+import java.awt.GraphicsEnvironment;
 
 /**
  * Classe de lancement du projet
@@ -10,6 +12,22 @@ import game.Game;
  */
 public class App {
     public static void main(String[] args) throws Exception {
+        // Relecture d'une partie enregistrée (galaga.replay)
+        String replayFile = System.getProperty("galaga.replay");
+        if (replayFile != null) {
+            InputReplay replay = InputReplay.load(replayFile);
+            Game g = new Game(replay.getSeed(), true); // une relecture ne touche pas au meilleur score
+            g.setInputSource(replay);
+            if (GraphicsEnvironment.isHeadless()) {
+                g.fastForward(); // sans fenêtre : aussi vite que possible
+            } else {
+                g.launch();
+            }
+            System.out.println("Score enregistré: " + replay.getScore() + (g.getScore() == replay.getScore()
+                    ? " (identique)" : " (différent: " + g.getScore() + ")"));
+            return;
+        }
+
         // Création d'un nouveau jeu et lancement de celui-ci
         Game g = new Game();
         g.launch();
@@ -0,0 +1,179 @@
+package engine;
+
+import game.Game;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulation d'un lot de parties indépendantes sur tous les cœurs. Chaque
+ * partie a sa graine, son pilote et ses propres objets : une partie simulée
+ * ne touche ni à StdDraw ni au fichier du meilleur score, si bien que les
+ * parties ne partagent aucun état modifiable. Elles sont réparties sur un
+ * {@link ForkJoinPool}.
+ * <p>
+ * Le lot est joué une fois par nombre de threads demandé, pour mesurer le
+ * passage à l'échelle ; les résultats, déterminés par les graines, doivent
+ * être identiques d'un passage à l'autre. Le score, la durée de survie et
+ * les ennemis détruits sont ensuite agrégés.
+ * <p>
+ * Utilisation : {@code java engine.BatchSimulation [parties] [threads,...] [bot|random] [graine] [mises à jour max]}
+ */
+public final class BatchSimulation {
+    private static final long DEFAULT_MAX_TICKS = 100_000; // un peu moins d'une heure de jeu par partie
+
+    /**
+     * Classe utilitaire : pas d'instance
+     */
+    private BatchSimulation() {
+    }
+
+    /**
+     * Résultat d'une partie
+     */
+    private static final class Result {
+        final Game.GameState state; // état final
+        final int score; // score final
+        final int kills; // ennemis détruits
+        final long ticks; // mises à jour jouées
+
+        Result(Game.GameState state, int score, int kills, long ticks) {
+            this.state = state;
+            this.score = score;
+            this.kills = kills;
+            this.ticks = ticks;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true"); // aucune fenêtre, même avec un écran
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String threadList = args.length > 1 ? args[1] : cores > 1 ? "1," + cores : "1";
+        String driver = args.length > 2 ? args[2] : "bot";
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        long maxTicks = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_MAX_TICKS;
+
+        // Une graine par partie, tirée de la graine du lot
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] seeds = new long[games];
+        for (int i = 0; i < games; i++) {
+            seeds[i] = random.nextLong();
+        }
+        Game probe = new Game(seeds[0], true);
+        HeadlessApp.driver(driver, probe, seeds[0]); // nom de pilote vérifié d'emblée
+
+        run(Arrays.copyOf(seeds, Math.min(games, 100)), cores, driver, maxTicks); // préchauffage
+
+        Result[] reference = null;
+        double referenceRate = 0;
+        for (String item : threadList.split(",")) {
+            int threads = Integer.parseInt(item.trim());
+            long start = System.nanoTime();
+            Result[] results = run(seeds, threads, driver, maxTicks);
+            long elapsed = Math.max(1, System.nanoTime() - start);
+
+            long ticks = 0;
+            for (Result result : results) {
+                ticks += result.ticks;
+            }
+            double rate = ticks * 1e9 / elapsed;
+            if (reference == null) {
+                reference = results;
+                referenceRate = rate;
+            }
+            System.out.printf("%3d thread(s): %d parties en %.2f s, %.1f parties/s, %.0f mises à jour/s,"
+                    + " accélération %.2f%s%n", threads, games, elapsed / 1e9, games * 1e9 / elapsed, rate,
+                    rate / referenceRate, sameResults(reference, results) ? "" : " (RÉSULTATS DIFFÉRENTS)");
+        }
+
+        summarize(reference, driver, seed, probe.getTickNanos());
+    }
+
+    /**
+     * Joue un lot de parties sur un ForkJoinPool dédié
+     *
+     * @param seeds    graine de chaque partie
+     * @param threads  nombre de threads du pool
+     * @param driver   nom du pilote
+     * @param maxTicks nombre maximal de mises à jour par partie
+     * @return le résultat de chaque partie, dans l'ordre des graines
+     */
+    private static Result[] run(long[] seeds, int threads, String driver, long maxTicks) throws Exception {
+        List<Callable<Result>> tasks = new ArrayList<>(seeds.length);
+        for (long seed : seeds) {
+            tasks.add(() -> play(seed, driver, maxTicks));
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Future<Result>> futures = pool.invokeAll(tasks);
+            Result[] results = new Result[seeds.length];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = futures.get(i).get();
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Joue une partie simulée jusqu'à sa fin
+     */
+    private static Result play(long seed, String driver, long maxTicks) {
+        Game game = new Game(seed, true);
+        game.setInputSource(HeadlessApp.driver(driver, game, seed));
+        long ticks = HeadlessApp.play(game, maxTicks);
+        return new Result(game.getState(), game.getScore(), game.getKills(), ticks);
+    }
+
+    private static boolean sameResults(Result[] a, Result[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].state != b[i].state || a[i].score != b[i].score || a[i].kills != b[i].kills
+                    || a[i].ticks != b[i].ticks) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Affiche les résultats agrégés du lot
+     */
+    private static void summarize(Result[] results, String driver, long seed, long tickNanos) {
+        int n = results.length;
+        int[] scores = new int[n];
+        long kills = 0;
+        long ticks = 0;
+        int[] outcomes = new int[Game.GameState.values().length];
+        for (int i = 0; i < n; i++) {
+            scores[i] = results[i].score;
+            kills += results[i].kills;
+            ticks += results[i].ticks;
+            outcomes[results[i].state.ordinal()]++;
+        }
+        Arrays.sort(scores);
+        long total = 0;
+        for (int score : scores) {
+            total += score;
+        }
+
+        System.out.printf("Lot de %d parties (%s, graine %d)%n", n, driver, seed);
+        System.out.printf("Score: moyen %.0f, médian %d, min %d, max %d%n", (double) total / n, scores[n / 2],
+                scores[0], scores[n - 1]);
+        System.out.printf("Survie: %.1f s de jeu en moyenne%n", ticks * tickNanos / 1e9 / n);
+        System.out.printf("Ennemis détruits: %.1f par partie%n", (double) kills / n);
+        StringBuilder line = new StringBuilder("Issues:");
+        for (Game.GameState state : Game.GameState.values()) {
+            if (outcomes[state.ordinal()] > 0) {
+                line.append(' ').append(state).append(' ').append(outcomes[state.ordinal()]);
+            }
+        }
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,87 @@
+package engine;
+
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import javax.swing.JFrame;
+
+/**
+ * Affichage actif : {@code show()} dessine directement le tampon d'image
+ * dans la page cachée d'un {@link Canvas} puis échange les pages. Le nombre
+ * de pages est donné par {@code stddraw.buffers} (2 ou 3).
+ */
+class BufferStrategyBackend implements RenderBackend {
+    private static final int BUFFERS = Integer.getInteger("stddraw.buffers", 2);
+
+    private JFrame frame; // la fenêtre
+    private BufferStrategy strategy; // pages du canevas
+    private int width; // largeur du canevas en pixels
+    private int height; // hauteur du canevas en pixels
+
+    @Override
+    public void open(BufferedImage offscreen, int width, int height, double pixelScale, StdDraw listener) {
+        this.width = width;
+        this.height = height;
+
+        Canvas canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(width, height));
+        canvas.setIgnoreRepaint(true); // we paint it ourselves in show()
+        canvas.addMouseListener(listener);
+        canvas.addMouseMotionListener(listener);
+        canvas.addKeyListener(listener);
+        canvas.setFocusTraversalKeysEnabled(false);
+
+        frame = new JFrame();
+        frame.setIgnoreRepaint(true);
+        frame.add(canvas);
+        frame.addKeyListener(listener);
+        SwingBackend.initFrame(frame, listener);
+
+        canvas.createBufferStrategy(Math.max(2, Math.min(3, BUFFERS)));
+        strategy = canvas.getBufferStrategy();
+        canvas.requestFocus();
+    }
+
+    @Override
+    public long present(BufferedImage offscreen, Shape clip, Rectangle clipBounds, long clipPixels) {
+        // Les pages sont échangées entières : la zone n'est pas utilisée
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(offscreen, 0, 0, width, height, null);
+                g.dispose();
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        return (long) offscreen.getWidth() * offscreen.getHeight();
+    }
+
+    @Override
+    public BufferedImage getDisplayedImage(BufferedImage offscreen) {
+        return offscreen; // pas de copie intermédiaire
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return true;
+    }
+
+    @Override
+    public Frame getFrame() {
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        frame.dispose();
+    }
+}
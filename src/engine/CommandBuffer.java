@@ -0,0 +1,360 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Tampon de commandes de dessin utilisé par {@link StdDraw} en mode
+ * enregistrement. Les rectangles pleins, textes et images sont stockés dans
+ * des tableaux de types primitifs, puis triés par type et par état (couleur,
+ * police, image) avant d'être exécutés avec le moins de changements d'état
+ * possible.
+ * <p>
+ * L'ordre de dessin n'est modifié que là où il est invisible : une grille
+ * d'occupation grossière découpe le tampon en segments dans lesquels chaque
+ * cellule n'est touchée que par un seul état. Deux commandes d'états
+ * différents qui se chevauchent restent donc dans l'ordre d'origine.
+ */
+final class CommandBuffer {
+    // Types de commandes (dans l'ordre où ils sont exécutés dans un segment)
+    static final int FILL = 0;
+    static final int IMAGE = 1;
+    static final int TEXT = 2;
+
+    private static final int CAPACITY = 1 << 20; // commandes par vidage (20 bits d'index)
+    private static final int MAX_STATES = 1 << 12; // états distincts par vidage
+    private static final int MAX_SEGMENTS = 1 << 16; // segments par vidage
+    private static final int GRID = 32; // taille de la grille d'occupation
+
+    private int size; // nombre de commandes enregistrées
+    private int[] kind = new int[256]; // type de chaque commande
+    private int[] state = new int[256]; // index de l'état de chaque commande
+    private double[] x = new double[256]; // position x (coordonnées du canevas, ou pixels pour les images)
+    private double[] y = new double[256]; // position y
+    private double[] w = new double[256]; // largeur
+    private double[] h = new double[256]; // hauteur
+    private int[] source = new int[4 * 256]; // rectangle source des images (sx, sy, sw, sh)
+    private String[] text = new String[256]; // chaînes des commandes texte
+    private long[] keys = new long[256]; // clés de tri
+
+    private Object[] stateColor = new Object[64]; // couleur de chaque état
+    private Object[] stateObject = new Object[64]; // police ou image de chaque état
+    private int[] stateKind = new int[64]; // type de chaque état
+    private int stateCount; // nombre d'états distincts
+    private int lastState = -1; // dernier état utilisé (recherche rapide)
+
+    private int segment; // segment courant
+    private final int[] cellState = new int[GRID * GRID]; // état occupant chaque cellule
+    private final int[] cellSegment = new int[GRID * GRID]; // segment de cette occupation (+1)
+    private double cellWidth; // largeur d'une cellule (coordonnées du canevas)
+    private double cellHeight; // hauteur d'une cellule
+
+    private final Rectangle2D.Double rect = new Rectangle2D.Double(); // rectangle réutilisé
+
+    private int commands; // commandes exécutées depuis le dernier appel à endFrame()
+    private int stateChanges; // changements d'état depuis le dernier appel à endFrame()
+    private int lastCommands; // commandes de la dernière image
+    private int lastStateChanges; // changements d'état de la dernière image
+
+    /**
+     * Définit la taille du canevas couvert par la grille d'occupation
+     *
+     * @param width  largeur du canevas en pixels
+     * @param height hauteur du canevas en pixels
+     */
+    void setCanvasSize(int width, int height) {
+        cellWidth = width / (double) GRID;
+        cellHeight = height / (double) GRID;
+        reset();
+    }
+
+    /**
+     * Vérifie si le tampon est vide
+     *
+     * @return true si aucune commande n'est en attente
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Abandonne toutes les commandes en attente
+     */
+    void reset() {
+        Arrays.fill(text, 0, size, null);
+        Arrays.fill(stateColor, 0, stateCount, null);
+        Arrays.fill(stateObject, 0, stateCount, null);
+        Arrays.fill(cellSegment, 0);
+        size = 0;
+        stateCount = 0;
+        lastState = -1;
+        segment = 0;
+    }
+
+    /**
+     * Indique si une commande peut encore être ajoutée sans vidage préalable
+     *
+     * @return true si le tampon est plein
+     */
+    boolean isFull() {
+        return size >= CAPACITY || stateCount >= MAX_STATES || segment >= MAX_SEGMENTS - 1;
+    }
+
+    /**
+     * Enregistre un rectangle plein
+     *
+     * @param x     bord gauche (coordonnées du canevas)
+     * @param y     bord haut
+     * @param w     largeur
+     * @param h     hauteur
+     * @param color couleur
+     */
+    void fill(double x, double y, double w, double h, Color color) {
+        add(FILL, stateOf(FILL, color, null), x, y, w, h, x, y, w, h);
+    }
+
+    /**
+     * Enregistre un texte
+     *
+     * @param x       position x de la ligne de base (coordonnées du canevas)
+     * @param y       position y de la ligne de base
+     * @param s       le texte
+     * @param font    la police
+     * @param color   la couleur
+     * @param width   largeur du texte
+     * @param ascent  hauteur au-dessus de la ligne de base
+     * @param descent hauteur en dessous de la ligne de base
+     */
+    void text(double x, double y, String s, Font font, Color color, double width, double ascent, double descent) {
+        int i = add(TEXT, stateOf(TEXT, color, font), x, y, width, 0, x, y - ascent, width, ascent + descent);
+        text[i] = s;
+    }
+
+    /**
+     * Enregistre la copie d'une région d'image
+     *
+     * @param image     l'image source
+     * @param dx        bord gauche de la destination (pixels du tampon d'image)
+     * @param dy        bord haut de la destination
+     * @param dw        largeur de la destination
+     * @param dh        hauteur de la destination
+     * @param sx        bord gauche de la source
+     * @param sy        bord haut de la source
+     * @param sw        largeur de la source
+     * @param sh        hauteur de la source
+     * @param scale     nombre de pixels du tampon par pixel du canevas
+     */
+    void image(BufferedImage image, int dx, int dy, int dw, int dh, int sx, int sy, int sw, int sh, double scale) {
+        int i = add(IMAGE, stateOf(IMAGE, null, image), dx, dy, dw, dh, dx / scale, dy / scale, dw / scale,
+                dh / scale);
+        int j = 4 * i;
+        source[j] = sx;
+        source[j + 1] = sy;
+        source[j + 2] = sw;
+        source[j + 3] = sh;
+    }
+
+    /**
+     * Ajoute une commande et détermine son segment à partir de sa boîte englobante
+     *
+     * @return l'index de la commande
+     */
+    private int add(int k, int s, double px, double py, double pw, double ph, double bx, double by, double bw,
+            double bh) {
+        ensureCapacity(size + 1);
+
+        int c0 = clampCell(bx / cellWidth);
+        int c1 = clampCell((bx + bw) / cellWidth);
+        int r0 = clampCell(by / cellHeight);
+        int r1 = clampCell((by + bh) / cellHeight);
+
+        // Nouveau segment si la commande recouvre une cellule occupée par un autre état
+        int mark = segment + 1;
+        search:
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * GRID + c;
+                if (cellSegment[cell] == mark && cellState[cell] != s) {
+                    segment++;
+                    mark = segment + 1;
+                    break search;
+                }
+            }
+        }
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * GRID + c;
+                cellSegment[cell] = mark;
+                cellState[cell] = s;
+            }
+        }
+
+        int i = size++;
+        kind[i] = k;
+        state[i] = s;
+        x[i] = px;
+        y[i] = py;
+        w[i] = pw;
+        h[i] = ph;
+        keys[i] = ((long) segment << 34) | ((long) k << 32) | ((long) s << 20) | i;
+        return i;
+    }
+
+    private static int clampCell(double v) {
+        int c = (int) v;
+        return c < 0 ? 0 : (c >= GRID ? GRID - 1 : c);
+    }
+
+    /**
+     * Retourne l'index de l'état correspondant, en le créant si nécessaire
+     */
+    private int stateOf(int k, Color color, Object object) {
+        if (lastState >= 0 && matches(lastState, k, color, object)) {
+            return lastState;
+        }
+        for (int i = 0; i < stateCount; i++) {
+            if (matches(i, k, color, object)) {
+                lastState = i;
+                return i;
+            }
+        }
+        if (stateCount == stateColor.length) {
+            stateColor = Arrays.copyOf(stateColor, 2 * stateCount);
+            stateObject = Arrays.copyOf(stateObject, 2 * stateCount);
+            stateKind = Arrays.copyOf(stateKind, 2 * stateCount);
+        }
+        stateColor[stateCount] = color;
+        stateObject[stateCount] = object;
+        stateKind[stateCount] = k;
+        lastState = stateCount;
+        return stateCount++;
+    }
+
+    private boolean matches(int i, int k, Color color, Object object) {
+        if (stateKind[i] != k || stateObject[i] != object && (object == null || !object.equals(stateObject[i]))) {
+            return false;
+        }
+        return stateColor[i] == color || (color != null && color.equals(stateColor[i]));
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= kind.length) {
+            return;
+        }
+        int capacity = Math.max(n, 2 * kind.length);
+        kind = Arrays.copyOf(kind, capacity);
+        state = Arrays.copyOf(state, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        w = Arrays.copyOf(w, capacity);
+        h = Arrays.copyOf(h, capacity);
+        source = Arrays.copyOf(source, 4 * capacity);
+        text = Arrays.copyOf(text, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    /**
+     * Trie puis exécute toutes les commandes en attente et vide le tampon.
+     * Les images sont copiées avec le filtrage déjà actif sur {@code g}.
+     *
+     * @param g      le contexte graphique du tampon d'image
+     * @param canvas transformation des coordonnées du canevas
+     * @param device transformation identité (pixels du tampon)
+     * @param raster rastériseur logiciel pour les rectangles et les images,
+     *               ou null pour tout dessiner avec {@code g}
+     */
+    void flush(Graphics2D g, AffineTransform canvas, AffineTransform device, Rasterizer raster) {
+        if (size == 0) {
+            return;
+        }
+        Arrays.sort(keys, 0, size);
+
+        int current = -1;
+        int argb = 0;
+        boolean deviceSpace = false;
+        for (int n = 0; n < size; n++) {
+            int i = (int) (keys[n] & 0xFFFFF);
+            int s = state[i];
+            int k = kind[i];
+
+            if (s != current) {
+                if (k == IMAGE && !deviceSpace) {
+                    g.setTransform(device);
+                    deviceSpace = true;
+                } else if (k != IMAGE && deviceSpace) {
+                    g.setTransform(canvas);
+                    deviceSpace = false;
+                }
+                if (stateColor[s] != null) {
+                    g.setColor((Color) stateColor[s]);
+                    argb = ((Color) stateColor[s]).getRGB();
+                }
+                if (k == TEXT) {
+                    g.setFont((Font) stateObject[s]);
+                }
+                current = s;
+                stateChanges++;
+            }
+
+            if (k == FILL && raster != null) {
+                raster.fill(x[i], y[i], w[i], h[i], argb);
+            } else if (k == FILL) {
+                rect.setRect(x[i], y[i], w[i], h[i]);
+                g.fill(rect);
+            } else if (k == IMAGE && raster != null && Rasterizer.supports((BufferedImage) stateObject[s])) {
+                int j = 4 * i;
+                int dx = (int) x[i];
+                int dy = (int) y[i];
+                raster.blit((BufferedImage) stateObject[s], dx, dy, dx + (int) w[i], dy + (int) h[i], source[j],
+                        source[j + 1], source[j + 2], source[j + 3]);
+            } else if (k == IMAGE) {
+                int j = 4 * i;
+                int dx = (int) x[i];
+                int dy = (int) y[i];
+                g.drawImage((BufferedImage) stateObject[s], dx, dy, dx + (int) w[i], dy + (int) h[i], source[j],
+                        source[j + 1], source[j] + source[j + 2], source[j + 1] + source[j + 3], null);
+            } else {
+                g.drawString(text[i], (float) x[i], (float) y[i]);
+            }
+        }
+        if (deviceSpace) {
+            g.setTransform(canvas);
+        }
+
+        commands += size;
+        reset();
+    }
+
+    /**
+     * Publie les compteurs de l'image qui se termine
+     */
+    void endFrame() {
+        lastCommands = commands;
+        lastStateChanges = stateChanges;
+        commands = 0;
+        stateChanges = 0;
+    }
+
+    /**
+     * Retourne le nombre de commandes exécutées pendant la dernière image
+     *
+     * @return nombre de commandes
+     */
+    int getCommandCount() {
+        return lastCommands;
+    }
+
+    /**
+     * Retourne le nombre de changements d'état pendant la dernière image
+     *
+     * @return nombre de changements d'état
+     */
+    int getStateChangeCount() {
+        return lastStateChanges;
+    }
+}
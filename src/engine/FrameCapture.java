@@ -0,0 +1,189 @@
+package engine;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+
+/**
+ * Capture des images affichées dans une suite de fichiers PNG numérotés.
+ * Chaque image est recopiée dans un tampon pris dans une réserve de taille
+ * fixe, puis encodée par un groupe de threads en arrière-plan. Le thread qui
+ * dessine n'attend jamais le disque : si aucun tampon n'est libre, l'image
+ * est perdue et comptée comme telle.
+ */
+public final class FrameCapture {
+    private final File directory; // dossier des fichiers PNG
+    private final BlockingQueue<BufferedImage> freeBuffers; // tampons disponibles
+    private final ThreadPoolExecutor encoders; // threads d'encodage
+    private final int bufferCount; // nombre total de tampons
+    private int allocated; // tampons déjà créés
+
+    private final AtomicLong captured = new AtomicLong(); // images recopiées
+    private final AtomicLong dropped = new AtomicLong(); // images perdues faute de tampon
+    private final AtomicLong written = new AtomicLong(); // fichiers écrits
+    private final AtomicLong failed = new AtomicLong(); // fichiers en erreur
+    private final AtomicInteger maxQueueDepth = new AtomicInteger(); // plus grand nombre d'images en attente
+
+    /**
+     * Démarre une capture
+     *
+     * @param directory dossier des fichiers (créé si nécessaire)
+     * @param buffers   nombre de tampons d'image (images en attente au plus)
+     * @param threads   nombre de threads d'encodage
+     * @throws IllegalArgumentException si le dossier ne peut pas être créé
+     */
+    FrameCapture(File directory, int buffers, int threads) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("cannot create capture directory " + directory);
+        }
+        this.directory = directory;
+        this.bufferCount = Math.max(1, buffers);
+        this.freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        encoders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(bufferCount), r -> {
+                    Thread thread = new Thread(r, "stddraw-capture-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    /**
+     * Recopie une image et la confie aux threads d'encodage, sans jamais attendre
+     *
+     * @param image l'image à capturer
+     */
+    void capture(BufferedImage image) {
+        BufferedImage buffer = takeBuffer(image);
+        if (buffer == null) {
+            dropped.incrementAndGet(); // l'encodage ne suit pas
+            return;
+        }
+        Graphics2D g = buffer.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+
+        long number = captured.incrementAndGet();
+        File file = new File(directory, String.format("frame-%06d.png", number));
+        try {
+            encoders.execute(() -> write(buffer, file));
+        } catch (RejectedExecutionException e) {
+            freeBuffers.offer(buffer); // capture arrêtée
+            dropped.incrementAndGet();
+            return;
+        }
+        int depth = getQueueDepth();
+        if (depth > maxQueueDepth.get()) {
+            maxQueueDepth.set(depth);
+        }
+    }
+
+    /**
+     * Retourne un tampon libre de la taille de l'image, ou null si tous sont
+     * en attente d'encodage
+     */
+    private BufferedImage takeBuffer(BufferedImage image) {
+        BufferedImage buffer = freeBuffers.poll();
+        if (buffer == null) {
+            if (allocated == bufferCount) {
+                return null;
+            }
+            allocated++; // la réserve se remplit au fil des premières images
+        } else if (buffer.getWidth() == image.getWidth() && buffer.getHeight() == image.getHeight()
+                && buffer.getType() == image.getType()) {
+            return buffer;
+        }
+        // Premier usage, ou taille du canevas changée depuis
+        return new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+    }
+
+    /**
+     * Encode un tampon dans un fichier puis le rend à la réserve
+     */
+    private void write(BufferedImage buffer, File file) {
+        try {
+            ImageIO.write(buffer, "png", file);
+            written.incrementAndGet();
+        } catch (IOException e) {
+            if (failed.getAndIncrement() == 0) {
+                System.out.println("Capture: impossible d'écrire " + file + ": " + e.getMessage());
+            }
+        } finally {
+            freeBuffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Arrête la capture après avoir écrit les images en attente
+     */
+    void close() {
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'images recopiées
+     *
+     * @return nombre d'images capturées
+     */
+    public long getCapturedCount() {
+        return captured.get();
+    }
+
+    /**
+     * Retourne le nombre d'images perdues parce que l'encodage ne suivait pas
+     *
+     * @return nombre d'images perdues
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Retourne le nombre de fichiers écrits
+     *
+     * @return nombre de fichiers
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Retourne le nombre d'images en attente ou en cours d'encodage
+     *
+     * @return profondeur de la file
+     */
+    public int getQueueDepth() {
+        return encoders.getQueue().size() + encoders.getActiveCount();
+    }
+
+    /**
+     * Retourne le plus grand nombre d'images en attente observé
+     *
+     * @return profondeur maximale de la file
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Capture: " + captured.get() + " images, " + written.get() + " écrites, " + dropped.get()
+                + " perdues, file max " + maxQueueDepth.get() + "/" + bufferCount;
+    }
+}
@@ -0,0 +1,171 @@
+package engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cadenceur d'images précis. Chaque attente vise une échéance absolue
+ * (et non une durée fixe ajoutée au temps de travail) : le thread est
+ * parqué pour l'essentiel de l'attente, puis cède la main en boucle
+ * pendant la dernière milliseconde, plus courte que la granularité du
+ * parcage. Le cadenceur mesure l'écart entre la période réelle des images
+ * et la période visée, ainsi que le retard au réveil.
+ * <p>
+ * Un cadenceur n'est utilisé que par un seul thread ; ses statistiques
+ * peuvent être lues depuis n'importe quel thread.
+ */
+public final class FramePacer {
+    private static final long SPIN_NANOS = 1_000_000L; // fin d'attente active (plus que la granularité du parcage)
+    private static final long BUCKET_NANOS = 10_000L; // précision des statistiques (10 µs)
+
+    private final long periodNanos; // période visée
+    private final FrameTimeHistogram deviation; // écart entre période réelle et période visée
+    private final FrameTimeHistogram lateness; // retard au réveil par rapport à l'échéance
+    private long deadline; // prochaine échéance de sync() (0 = pas encore commencé)
+    private long lastFrame; // instant de la dernière image (0 = aucune)
+    private long missed; // échéances manquées de plus d'une période
+
+    /**
+     * Crée un cadenceur
+     *
+     * @param name        nom affiché dans les statistiques
+     * @param periodNanos période visée entre deux images, en nanosecondes
+     */
+    public FramePacer(String name, long periodNanos) {
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.periodNanos = periodNanos;
+        deviation = new FrameTimeHistogram(name + " (écart à la période)", BUCKET_NANOS);
+        lateness = new FrameTimeHistogram(name + " (retard au réveil)", BUCKET_NANOS);
+    }
+
+    /**
+     * Attend la prochaine échéance, une période après la précédente, puis
+     * enregistre l'image. Si l'échéance est manquée de plus d'une période,
+     * la cadence repart de maintenant au lieu d'enchaîner les images en
+     * retard.
+     *
+     * @return l'instant du réveil (System.nanoTime)
+     */
+    public long sync() {
+        if (deadline == 0) {
+            deadline = System.nanoTime();
+        }
+        deadline += periodNanos;
+        long now = awaitDeadline(deadline);
+        frame(now);
+        if (now - deadline > periodNanos) {
+            missed++;
+            deadline = now;
+        }
+        return now;
+    }
+
+    /**
+     * Attend jusqu'à une échéance absolue et enregistre le retard au réveil
+     *
+     * @param target échéance (System.nanoTime)
+     * @return l'instant du réveil (System.nanoTime)
+     */
+    public long awaitDeadline(long target) {
+        long now = System.nanoTime();
+        long remaining = target - now;
+        if (remaining <= 0) {
+            return now; // déjà en retard : pas d'attente, pas de retard au réveil imputable
+        }
+        // Parcage pour l'essentiel de l'attente...
+        while (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            now = System.nanoTime();
+            remaining = target - now;
+        }
+        // ... puis attente active pour la fin
+        while (remaining > 0) {
+            Thread.yield();
+            now = System.nanoTime();
+            remaining = target - now;
+        }
+        lateness.record(now - target);
+        return now;
+    }
+
+    /**
+     * Enregistre une image produite à un instant donné, pour mesurer
+     * l'écart entre la période réelle et la période visée
+     *
+     * @param now instant de l'image (System.nanoTime)
+     */
+    public void frame(long now) {
+        if (lastFrame != 0) {
+            deviation.record(Math.abs(now - lastFrame - periodNanos));
+        }
+        lastFrame = now;
+    }
+
+    /**
+     * Retourne la période visée
+     *
+     * @return période en nanosecondes
+     */
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Retourne l'écart moyen entre la période réelle et la période visée
+     *
+     * @return écart en nanosecondes
+     */
+    public long getMeanDeviationNanos() {
+        return deviation.getMeanNanos();
+    }
+
+    /**
+     * Retourne l'écart à la période visée sous lequel se trouve une
+     * fraction des images
+     *
+     * @param fraction fraction entre 0 et 1 (0.99 pour le 99e centile)
+     * @return écart en nanosecondes (à 10 µs près)
+     */
+    public long getDeviationPercentileNanos(double fraction) {
+        return deviation.getPercentileNanos(fraction);
+    }
+
+    /**
+     * Retourne l'histogramme des écarts à la période visée
+     *
+     * @return l'histogramme
+     */
+    public FrameTimeHistogram getDeviation() {
+        return deviation;
+    }
+
+    /**
+     * Retourne l'histogramme des retards au réveil
+     *
+     * @return l'histogramme
+     */
+    public FrameTimeHistogram getLateness() {
+        return lateness;
+    }
+
+    /**
+     * Retourne le nombre d'échéances manquées de plus d'une période
+     *
+     * @return nombre d'échéances manquées
+     */
+    public long getMissedCount() {
+        return missed;
+    }
+
+    /**
+     * Retourne un résumé lisible des écarts et des retards
+     *
+     * @return le résumé
+     */
+    @Override
+    public String toString() {
+        return deviation + "\n" + lateness + "\n" + String.format("période visée %.2f ms, %d échéances manquées",
+                periodNanos / 1e6, missed);
+    }
+}
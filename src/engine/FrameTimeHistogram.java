@@ -0,0 +1,136 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme des durées d'image. Les durées sont rangées dans 400
+ * intervalles (de 0,25 ms par défaut, donc jusqu'à 100 ms), les plus
+ * longues dans un dernier intervalle. Un seul thread enregistre ; n'importe quel thread peut lire
+ * les statistiques pendant l'exécution.
+ */
+public final class FrameTimeHistogram {
+    private static final long DEFAULT_BUCKET_NANOS = 250_000L; // largeur d'un intervalle par défaut
+    private static final int BUCKETS = 400; // nombre d'intervalles
+
+    private final String name; // nom affiché dans le résumé
+    private final long bucketNanos; // largeur d'un intervalle
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 1); // durées par intervalle
+    private volatile long count; // nombre de durées enregistrées
+    private volatile long totalNanos; // somme des durées
+    private volatile long maxNanos; // plus longue durée
+
+    /**
+     * Crée un histogramme vide
+     *
+     * @param name nom de l'histogramme (par exemple le thread mesuré)
+     */
+    public FrameTimeHistogram(String name) {
+        this(name, DEFAULT_BUCKET_NANOS);
+    }
+
+    /**
+     * Crée un histogramme vide avec des intervalles plus fins ou plus larges
+     *
+     * @param name        nom de l'histogramme
+     * @param bucketNanos largeur d'un intervalle en nanosecondes
+     */
+    public FrameTimeHistogram(String name, long bucketNanos) {
+        if (bucketNanos <= 0) {
+            throw new IllegalArgumentException("bucket width must be positive");
+        }
+        this.name = name;
+        this.bucketNanos = bucketNanos;
+    }
+
+    /**
+     * Enregistre une durée
+     *
+     * @param nanos durée en nanosecondes
+     */
+    public void record(long nanos) {
+        int bucket = (int) Math.min(BUCKETS, Math.max(0, nanos) / bucketNanos);
+        counts.incrementAndGet(bucket);
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+        count++;
+    }
+
+    /**
+     * Retourne le nombre de durées enregistrées
+     *
+     * @return nombre de durées
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retourne la durée moyenne
+     *
+     * @return moyenne en nanosecondes (0 si vide)
+     */
+    public long getMeanNanos() {
+        long n = count;
+        return n == 0 ? 0 : totalNanos / n;
+    }
+
+    /**
+     * Retourne la plus longue durée enregistrée
+     *
+     * @return maximum en nanosecondes
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Retourne la durée sous laquelle se trouve la fraction donnée des images
+     * (borne supérieure de l'intervalle correspondant)
+     *
+     * @param fraction fraction entre 0 et 1 (0.99 pour le 99e centile)
+     * @return durée en nanosecondes (0 si vide)
+     */
+    public long getPercentileNanos(double fraction) {
+        long total = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return (i + 1) * bucketNanos;
+            }
+        }
+        return total == 0 ? 0 : maxNanos;
+    }
+
+    /**
+     * Retourne la répartition des durées par intervalle (le dernier élément
+     * compte les durées qui dépassent le dernier intervalle)
+     *
+     * @return nombre de durées par intervalle
+     */
+    public long[] getCounts() {
+        long[] result = new long[BUCKETS + 1];
+        for (int i = 0; i <= BUCKETS; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Retourne un résumé lisible : nombre, moyenne, centiles et maximum
+     *
+     * @return le résumé
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %d images, moyenne %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms", name,
+                getCount(), getMeanNanos() / 1e6, getPercentileNanos(0.5) / 1e6, getPercentileNanos(0.99) / 1e6,
+                getMaxNanos() / 1e6);
+    }
+}
@@ -0,0 +1,90 @@
+package engine;
+
+import game.BotInput;
+import game.Game;
+import game.InputReplay;
+import game.InputSource;
+import game.RandomInput;
+import java.util.SplittableRandom;
+
+/**
+ * Lancement du jeu sans fenêtre, pour les tests d'endurance et l'équilibrage.
+ * La partie est pilotée par un automate, par des commandes aléatoires ou par
+ * une relecture, et avance mise à jour après mise à jour aussi vite que le
+ * processeur le permet, jusqu'à la fin de la partie.
+ * <p>
+ * Utilisation : {@code java engine.HeadlessApp [bot|random|fichier.rpl] [graine] [mises à jour max]}
+ */
+public class HeadlessApp {
+    private static final long DEFAULT_MAX_TICKS = 100_000; // un peu moins d'une heure de jeu
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true"); // aucune fenêtre, même avec un écran
+
+        String driver = args.length > 0 ? args[0] : "bot";
+        long maxTicks = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_MAX_TICKS;
+
+        // Graine et commandes : celles de la relecture, ou celles demandées
+        InputReplay replay = null;
+        long seed;
+        if (!driver.equals("bot") && !driver.equals("random")) {
+            replay = InputReplay.load(driver);
+            seed = replay.getSeed();
+        } else {
+            seed = args.length > 1 ? Long.parseLong(args[1]) : new SplittableRandom().nextLong();
+        }
+        Game game = new Game(seed, true); // les parties simulées ne touchent pas au meilleur score
+        game.setInputSource(replay != null ? replay : driver(driver, game, seed));
+
+        long start = System.nanoTime();
+        long ticks = play(game, maxTicks);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        System.out.printf("Simulation (%s, graine %d): %d mises à jour en %.1f ms, %.0f mises à jour/s,"
+                + " %.0f fois le temps réel%n", driver, seed, ticks, elapsed / 1e6, ticks * 1e9 / elapsed,
+                (double) ticks * game.getTickNanos() / elapsed);
+        System.out.printf("Issue: %s après %.1f s de jeu, score %d, %d ennemis détruits, niveau %d, vies %d%n",
+                game.getState(), ticks * game.getTickNanos() / 1e9, game.getScore(), game.getKills(),
+                game.getLevelNumber(), game.player.getLives());
+        if (replay != null) {
+            System.out.println("Score enregistré: " + replay.getScore());
+        }
+    }
+
+    /**
+     * Crée le pilote d'une partie simulée
+     *
+     * @param name nom du pilote : bot ou random
+     * @param game la partie pilotée
+     * @param seed graine de la partie
+     * @return la source de commandes
+     */
+    static InputSource driver(String name, Game game, long seed) {
+        switch (name) {
+            case "bot":
+                return new BotInput(game);
+            case "random":
+                return new RandomInput(seed);
+            default:
+                throw new IllegalArgumentException("unknown driver: " + name);
+        }
+    }
+
+    /**
+     * Fait avancer une partie jusqu'à sa fin (défaite, victoire, demande de
+     * quitter) ou jusqu'à une limite de mises à jour
+     *
+     * @param game     la partie, dont la source de commandes est fixée
+     * @param maxTicks nombre maximal de mises à jour
+     * @return nombre de mises à jour effectuées
+     */
+    static long play(Game game, long maxTicks) {
+        long ticks = 0;
+        while (game.isGameRunning() && ticks < maxTicks && game.getState() != Game.GameState.GAME_OVER
+                && game.getState() != Game.GameState.VICTORY) {
+            game.step();
+            ticks++;
+        }
+        return ticks;
+    }
+}
@@ -0,0 +1,52 @@
+package engine;
+
+import java.awt.Frame;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+
+/**
+ * Affichage en mémoire, sans fenêtre : {@code show()} recopie le tampon
+ * d'image dans une image qui joue le rôle de l'écran (pour les captures et
+ * les tests). Les images ne sont pas affichées en temps réel :
+ * {@code StdDraw.pause()} n'attend pas. C'est le backend par défaut lorsque
+ * {@code java.awt.headless=true}.
+ */
+class ImageBackend implements RenderBackend {
+    private BufferedImage displayed; // la dernière image affichée
+    private Graphics2D graphics; // son contexte graphique
+
+    @Override
+    public void open(BufferedImage offscreen, int width, int height, double pixelScale, StdDraw listener) {
+        displayed = new BufferedImage(offscreen.getWidth(), offscreen.getHeight(), offscreen.getType());
+        graphics = displayed.createGraphics();
+    }
+
+    @Override
+    public long present(BufferedImage offscreen, Shape clip, Rectangle clipBounds, long clipPixels) {
+        graphics.setClip(clip);
+        graphics.drawImage(offscreen, 0, 0, null);
+        return clip != null ? clipPixels : (long) offscreen.getWidth() * offscreen.getHeight();
+    }
+
+    @Override
+    public BufferedImage getDisplayedImage(BufferedImage offscreen) {
+        return displayed;
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return false;
+    }
+
+    @Override
+    public Frame getFrame() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        graphics.dispose();
+    }
+}
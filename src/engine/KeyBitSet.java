@@ -0,0 +1,78 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ensemble des touches enfoncées, un bit par code de touche. Les écritures
+ * (écouteurs clavier) modifient un mot de 64 bits par compare-and-set ; les
+ * lectures sont une simple lecture volatile, sans verrou, sans attente et
+ * sans objet Integer.
+ */
+final class KeyBitSet {
+    static final int SIZE = 1 << 16; // codes de touche représentés (0 à 65535)
+
+    private final AtomicLongArray words = new AtomicLongArray(SIZE >>> 6); // bits des touches
+
+    /**
+     * Marque une touche comme enfoncée
+     *
+     * @param keycode code de la touche
+     * @return true si la touche n'était pas déjà enfoncée (false aussi hors limites)
+     */
+    boolean set(int keycode) {
+        if (keycode < 0 || keycode >= SIZE) {
+            return false;
+        }
+        int index = keycode >>> 6;
+        long bit = 1L << keycode; // décalage pris modulo 64
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & bit) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word | bit));
+        return true;
+    }
+
+    /**
+     * Marque une touche comme relâchée
+     *
+     * @param keycode code de la touche
+     * @return true si la touche était enfoncée
+     */
+    boolean clear(int keycode) {
+        if (keycode < 0 || keycode >= SIZE) {
+            return false;
+        }
+        int index = keycode >>> 6;
+        long bit = 1L << keycode;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & bit) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word & ~bit));
+        return true;
+    }
+
+    /**
+     * Indique si une touche est enfoncée
+     *
+     * @param keycode code de la touche
+     * @return true si la touche est enfoncée (false hors limites)
+     */
+    boolean get(int keycode) {
+        return keycode >= 0 && keycode < SIZE && (words.get(keycode >>> 6) & 1L << keycode) != 0;
+    }
+
+    /**
+     * Relâche toutes les touches
+     */
+    void clearAll() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+    }
+}
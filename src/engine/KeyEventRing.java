@@ -0,0 +1,108 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File circulaire sans verrou d'événements clavier horodatés, pour un seul
+ * producteur (les écouteurs clavier de StdDraw) et un seul consommateur
+ * (le thread du jeu). Le producteur écrit l'événement dans sa case puis
+ * publie la nouvelle fin de file ; le consommateur lit toutes les cases
+ * publiées puis libère les cases lues. Aucune allocation, aucune attente :
+ * si la file est pleine, l'événement est perdu et compté.
+ */
+public final class KeyEventRing {
+    private final int mask; // capacité - 1 (capacité puissance de 2)
+    private final int[] keys; // code de touche << 1 | 1 si enfoncée
+    private final long[] times; // instants des événements (System.nanoTime)
+    private final AtomicLong tail = new AtomicLong(); // prochain événement à écrire (producteur)
+    private final AtomicLong head = new AtomicLong(); // prochain événement à lire (consommateur)
+    private long cachedHead; // dernière valeur de head vue par le producteur
+    private volatile long dropped; // événements perdus (file pleine)
+
+    /**
+     * Crée une file vide
+     *
+     * @param capacity nombre maximal d'événements en attente (puissance de 2)
+     */
+    public KeyEventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2");
+        }
+        mask = capacity - 1;
+        keys = new int[capacity];
+        times = new long[capacity];
+    }
+
+    /**
+     * Ajoute un événement (producteur uniquement)
+     *
+     * @param keycode code de la touche
+     * @param down    true si la touche est enfoncée, false si elle est relâchée
+     * @param nanos   instant de l'événement (System.nanoTime)
+     * @return false si la file est pleine et l'événement perdu
+     */
+    public boolean offer(int keycode, boolean down, long nanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get(); // relu seulement quand la file semble pleine
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+        int slot = (int) t & mask;
+        keys[slot] = keycode << 1 | (down ? 1 : 0);
+        times[slot] = nanos;
+        tail.lazySet(t + 1); // publie la case (écriture ordonnée)
+        return true;
+    }
+
+    /**
+     * Lit tous les événements publiés depuis le dernier appel et les
+     * transmet au visiteur (consommateur uniquement)
+     *
+     * @param visitor reçoit chaque événement, dans l'ordre d'arrivée
+     * @return le nombre d'événements lus
+     */
+    public int drain(Visitor visitor) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            int slot = (int) i & mask;
+            int key = keys[slot];
+            visitor.keyEvent(key >> 1, (key & 1) != 0, times[slot]);
+        }
+        head.lazySet(t); // libère les cases lues
+        return (int) (t - h);
+    }
+
+    /**
+     * Ignore tous les événements en attente (consommateur uniquement)
+     */
+    public void skipAll() {
+        head.lazySet(tail.get());
+    }
+
+    /**
+     * Retourne le nombre d'événements perdus parce que la file était pleine
+     *
+     * @return nombre d'événements perdus
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Reçoit les événements lus par {@link KeyEventRing#drain(Visitor)}
+     */
+    public interface Visitor {
+        /**
+         * Traite un événement clavier
+         *
+         * @param keycode code de la touche
+         * @param down    true si la touche a été enfoncée, false si elle a été relâchée
+         * @param nanos   instant de l'événement (System.nanoTime)
+         */
+        void keyEvent(int keycode, boolean down, long nanos);
+    }
+}
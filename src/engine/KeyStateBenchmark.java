@@ -0,0 +1,141 @@
+package engine;
+
+import java.util.TreeSet;
+
+/**
+ * Compare deux façons de lire l'état du clavier pendant une rafale de
+ * répétitions automatiques : l'ancien ensemble {@code TreeSet<Integer>}
+ * protégé par un verrou, et le {@link KeyBitSet} lu sans verrou. Un fil
+ * producteur joue le rôle des écouteurs clavier et enfonce puis relâche
+ * quelques touches en boucle ; le fil principal lit l'état des touches
+ * du jeu comme le ferait une image, et mesure le coût moyen d'une lecture.
+ * <p>
+ * Utilisation : {@code java engine.KeyStateBenchmark [lectures] [pause du producteur en ns]}
+ */
+public final class KeyStateBenchmark {
+    private static final int[] KEYS = { 37, 39, 32, 80, 82 }; // touches lues à chaque image
+    private static final int[] STORM = { 37, 39, 32 }; // touches répétées par le producteur
+
+    /**
+     * Classe utilitaire : pas d'instance
+     */
+    private KeyStateBenchmark() {
+    }
+
+    /**
+     * État du clavier partagé entre le producteur et le lecteur
+     */
+    private interface KeyState {
+        void press(int keycode);
+
+        void release(int keycode);
+
+        boolean isPressed(int keycode);
+    }
+
+    /**
+     * Ancienne implémentation : ensemble trié d'entiers sous verrou
+     */
+    private static final class LockedTreeSet implements KeyState {
+        private final Object lock = new Object(); // verrou partagé lecteur / écrivain
+        private final TreeSet<Integer> keys = new TreeSet<>(); // touches enfoncées
+
+        @Override
+        public void press(int keycode) {
+            synchronized (lock) {
+                keys.add(keycode);
+            }
+        }
+
+        @Override
+        public void release(int keycode) {
+            synchronized (lock) {
+                keys.remove(keycode);
+            }
+        }
+
+        @Override
+        public boolean isPressed(int keycode) {
+            synchronized (lock) {
+                return keys.contains(keycode);
+            }
+        }
+    }
+
+    /**
+     * Nouvelle implémentation : ensemble de bits atomique
+     */
+    private static final class AtomicBits implements KeyState {
+        private final KeyBitSet keys = new KeyBitSet(); // touches enfoncées
+
+        @Override
+        public void press(int keycode) {
+            keys.set(keycode);
+        }
+
+        @Override
+        public void release(int keycode) {
+            keys.clear(keycode);
+        }
+
+        @Override
+        public boolean isPressed(int keycode) {
+            return keys.get(keycode);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long reads = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000L;
+        long pause = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+        KeyState[] states = { new LockedTreeSet(), new AtomicBits() };
+        String[] names = { "TreeSet sous verrou", "bits atomiques" };
+        for (int round = 0; round < 2; round++) { // le premier tour sert de préchauffage
+            for (int i = 0; i < states.length; i++) {
+                run(round == 0 ? "préchauffage" : names[i], states[i], round == 0 ? reads / 10 : reads, pause,
+                        round > 0);
+            }
+        }
+    }
+
+    private static void run(String name, KeyState state, long reads, long pause, boolean report)
+            throws InterruptedException {
+        final long[] events = new long[1];
+        Thread producer = new Thread(() -> {
+            long n = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                int keycode = STORM[(int) (n % STORM.length)];
+                state.press(keycode);
+                state.release(keycode);
+                n += 2;
+                if (pause > 0) {
+                    long end = System.nanoTime() + pause;
+                    while (System.nanoTime() < end) {
+                        // attente active : la rafale suit le rythme demandé
+                    }
+                }
+            }
+            events[0] = n;
+        }, "Rafale clavier");
+        producer.setDaemon(true);
+        producer.start();
+
+        int held = 0;
+        long start = System.nanoTime();
+        for (long r = 0; r < reads; r += KEYS.length) {
+            for (int keycode : KEYS) {
+                if (state.isPressed(keycode)) {
+                    held++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        producer.interrupt();
+        producer.join();
+
+        if (report) {
+            System.out.printf("%-20s %7.2f ns/lecture  %6.2f M événements/s  (%d lectures positives)%n", name,
+                    (double) elapsed / reads, events[0] / (elapsed / 1e3), held);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package engine;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Calque mis en cache : une région rectangulaire du canevas dessinée une
+ * seule fois dans une image, puis recopiée à chaque image tant que son
+ * contenu ne change pas. Le contenu est identifié par une clé (par exemple
+ * un hachage des valeurs affichées) : le calque n'est redessiné que lorsque
+ * la clé change, ou lorsque l'échelle du canevas change.
+ * <p>
+ * Utilisation :
+ * <pre>
+ * if (layer.begin(key)) {
+ *     // dessins habituels avec StdDraw
+ *     layer.end();
+ * }
+ * layer.draw();
+ * </pre>
+ */
+public final class Layer {
+    private final double x; // centre x (coordonnées utilisateur)
+    private final double y; // centre y
+    private final double halfWidth; // demi-largeur
+    private final double halfHeight; // demi-hauteur
+
+    private BufferedImage image; // contenu du calque, en pixels du tampon d'image
+    private int scaleVersion; // version de l'échelle pour laquelle l'image a été allouée
+    private boolean valid; // l'image correspond à la clé
+    private long key; // clé du contenu actuel
+    private int renders; // nombre de fois où le calque a été redessiné
+
+    /**
+     * Crée un calque couvrant un rectangle du canevas
+     *
+     * @param x          centre x du rectangle
+     * @param y          centre y du rectangle
+     * @param halfWidth  demi-largeur du rectangle
+     * @param halfHeight demi-hauteur du rectangle
+     */
+    public Layer(double x, double y, double halfWidth, double halfHeight) {
+        this.x = x;
+        this.y = y;
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+    }
+
+    /**
+     * Commence le dessin du calque si son contenu a changé. Si cette méthode
+     * retourne true, tous les dessins de StdDraw vont dans le calque jusqu'à
+     * l'appel de {@link #end()}.
+     *
+     * @param key clé identifiant le contenu à afficher
+     * @return true si le calque doit être redessiné
+     */
+    public boolean begin(long key) {
+        if (image == null || scaleVersion != StdDraw.getScaleVersion()) {
+            int w = Math.max(1, StdDraw.deviceWidth(2 * halfWidth));
+            int h = Math.max(1, StdDraw.deviceHeight(2 * halfHeight));
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            scaleVersion = StdDraw.getScaleVersion();
+            valid = false;
+        }
+        if (valid && this.key == key) {
+            return false;
+        }
+        this.key = key;
+        StdDraw.beginLayer(image, x, y);
+        return true;
+    }
+
+    /**
+     * Termine le dessin du calque
+     */
+    public void end() {
+        StdDraw.endLayer();
+        valid = true;
+        renders++;
+    }
+
+    /**
+     * Dessine le calque sur le canevas en une seule copie
+     */
+    public void draw() {
+        if (valid) {
+            StdDraw.image(x, y, image);
+        }
+    }
+
+    /**
+     * Dessine le calque centré sur un autre point du canevas (par exemple
+     * pour le faire défiler), en une seule copie
+     *
+     * @param x centre x où dessiner le calque
+     * @param y centre y où dessiner le calque
+     */
+    public void draw(double x, double y) {
+        if (valid) {
+            StdDraw.image(x, y, image);
+        }
+    }
+
+    /**
+     * Force le calque à être redessiné au prochain appel de {@link #begin(long)}
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Retourne le nombre de fois où le calque a été redessiné
+     *
+     * @return nombre de rendus
+     */
+    public int getRenderCount() {
+        return renders;
+    }
+}
@@ -0,0 +1,41 @@
+package engine;
+
+import java.awt.Frame;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+
+/**
+ * Aucun affichage : {@code show()} ne fait rien et {@code StdDraw.pause()}
+ * n'attend pas. Les dessins restent dans le tampon d'image, qui est aussi
+ * l'image sauvegardée par {@code save()}.
+ */
+class NullBackend implements RenderBackend {
+    @Override
+    public void open(BufferedImage offscreen, int width, int height, double pixelScale, StdDraw listener) {
+    }
+
+    @Override
+    public long present(BufferedImage offscreen, Shape clip, Rectangle clipBounds, long clipPixels) {
+        return 0;
+    }
+
+    @Override
+    public BufferedImage getDisplayedImage(BufferedImage offscreen) {
+        return offscreen;
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return false;
+    }
+
+    @Override
+    public Frame getFrame() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+}
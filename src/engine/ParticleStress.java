@@ -0,0 +1,109 @@
+package engine;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+/**
+ * Scène de stress du système de particules : des gerbes sont émises en
+ * continu pour maintenir des dizaines de milliers de particules vivantes.
+ * Affiche le temps moyen de mise à jour et de dessin par image, et la
+ * mémoire allouée par image une fois le régime établi. Avec
+ * {@code -Dstddraw.backend=none}, aucune image n'est présentée et cette
+ * mémoire doit être nulle.
+ * <p>
+ * Utilisation : {@code java engine.ParticleStress [images] [particules]}
+ */
+public final class ParticleStress {
+    private static final Color[] PALETTE = {
+        Color.WHITE, Color.YELLOW, Color.ORANGE, Color.RED
+    };
+    private static final int LIFETIME = 60; // durée de vie maximale en images
+    private static final int BURST = 64; // particules par gerbe
+
+    /**
+     * Classe utilitaire : pas d'instance
+     */
+    private ParticleStress() {
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+        int target = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+
+        StdDraw.setCanvasSize(700, 700);
+        StdDraw.enableDoubleBuffering();
+        StdDraw.enableCommandBuffer();
+
+        ParticleSystem particles = new ParticleSystem(2 * target, PALETTE);
+        particles.setPhysics(0.0001, 0.98);
+        SplittableRandom random = new SplittableRandom(42);
+
+        // Gerbes par image pour compenser les particules qui meurent (durée moyenne 3/4 de LIFETIME)
+        int bursts = Math.max(1, target * 4 / (3 * LIFETIME) / BURST);
+
+        run(frames / 4, particles, random, bursts, null); // préchauffage et régime établi
+        long[] totals = new long[3];
+        run(frames, particles, random, bursts, totals);
+
+        System.out.printf("%d particules vivantes (capacité %d, %d perdues)%n", particles.size(),
+                particles.getCapacity(), particles.getDroppedCount());
+        System.out.printf("mise à jour %8.3f ms/image  %6.1f ns/particule%n", totals[0] / 1e6 / frames,
+                (double) totals[0] / frames / Math.max(1, particles.size()));
+        System.out.printf("dessin      %8.3f ms/image  %6.1f ns/particule%n", totals[1] / 1e6 / frames,
+                (double) totals[1] / frames / Math.max(1, particles.size()));
+        if (totals[2] >= 0) {
+            System.out.printf("mémoire allouée: %.1f octets/image%n", (double) totals[2] / frames);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Simule et dessine les images ; si totals n'est pas null, y cumule les
+     * durées de mise à jour et de dessin et la mémoire allouée
+     * (-1 si la JVM ne la mesure pas)
+     */
+    private static void run(int frames, ParticleSystem particles, SplittableRandom random, int bursts,
+            long[] totals) {
+        long allocatedBefore = allocatedBytes();
+        long update = 0;
+        long draw = 0;
+        for (int f = 0; f < frames; f++) {
+            long start = System.nanoTime();
+            for (int b = 0; b < bursts; b++) {
+                particles.explode(random.nextDouble(0.1, 0.9), random.nextDouble(0.1, 0.9), BURST, 0.01, 0.003,
+                        LIFETIME, 0, PALETTE.length, random);
+            }
+            particles.update();
+            long middle = System.nanoTime();
+            StdDraw.clear(Color.BLACK);
+            particles.draw();
+            StdDraw.show();
+            long end = System.nanoTime();
+            update += middle - start;
+            draw += end - middle;
+        }
+        long allocatedAfter = allocatedBytes();
+        if (totals != null) {
+            totals[0] = update;
+            totals[1] = draw;
+            totals[2] = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+        }
+    }
+
+    /**
+     * Retourne la mémoire allouée par le thread courant depuis son démarrage
+     *
+     * @return nombre d'octets, ou -1 si la JVM ne le mesure pas
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            if (sun.isThreadAllocatedMemorySupported()) {
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,287 @@
+package engine;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Système de particules (explosions, débris) stocké en tableaux de types
+ * primitifs : une particule n'est qu'un index. La capacité est fixée à la
+ * création ; une particule morte est remplacée par la dernière (retrait par
+ * échange), si bien que les particules vivantes occupent toujours le début
+ * des tableaux. Ni l'émission, ni la mise à jour, ni le dessin n'allouent
+ * de mémoire.
+ * <p>
+ * Les couleurs sont des index dans une palette fixe : le dessin change de
+ * couleur une seule fois par entrée de la palette.
+ */
+public final class ParticleSystem {
+    private final int capacity; // nombre maximal de particules vivantes
+    private final Color[] palette; // couleurs utilisables
+    private final float[] x; // positions x
+    private final float[] y; // positions y
+    private final float[] vx; // vitesses x (unités par image)
+    private final float[] vy; // vitesses y
+    private final float[] size; // demi-tailles initiales
+    private final int[] life; // images restantes
+    private final int[] span; // durée de vie totale en images
+    private final byte[] color; // index dans la palette
+    private final int[] colorCount; // particules vivantes par couleur
+
+    private int count; // nombre de particules vivantes
+    private float gravity; // accélération verticale (unités par image²)
+    private float drag = 1f; // facteur de vitesse conservé à chaque image
+    private long version; // incrémenté à chaque mise à jour
+    private long dropped; // particules non émises faute de place
+
+    /**
+     * Crée un système vide
+     *
+     * @param capacity nombre maximal de particules vivantes
+     * @param palette  couleurs des particules (au plus 256)
+     */
+    public ParticleSystem(int capacity, Color[] palette) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (palette.length == 0 || palette.length > 256) {
+            throw new IllegalArgumentException("palette must have between 1 and 256 colors");
+        }
+        this.capacity = capacity;
+        this.palette = palette.clone();
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        size = new float[capacity];
+        life = new int[capacity];
+        span = new int[capacity];
+        color = new byte[capacity];
+        colorCount = new int[palette.length];
+    }
+
+    /**
+     * Définit la gravité et la résistance de l'air
+     *
+     * @param gravity accélération vers le bas (unités par image²)
+     * @param drag    facteur de vitesse conservé à chaque image (1 = aucune résistance)
+     */
+    public void setPhysics(double gravity, double drag) {
+        this.gravity = (float) gravity;
+        this.drag = (float) drag;
+    }
+
+    /**
+     * Émet une particule (ignorée si le système est plein)
+     *
+     * @param px         position x
+     * @param py         position y
+     * @param pvx        vitesse x (unités par image)
+     * @param pvy        vitesse y
+     * @param halfSize   demi-taille initiale (la particule rétrécit avec l'âge)
+     * @param frames     durée de vie en images
+     * @param colorIndex index de la couleur dans la palette
+     * @throws IllegalArgumentException si colorIndex est hors de la palette
+     */
+    public void emit(double px, double py, double pvx, double pvy, double halfSize, int frames, int colorIndex) {
+        if (colorIndex < 0 || colorIndex >= palette.length) {
+            throw new IllegalArgumentException("color index out of palette: " + colorIndex);
+        }
+        if (count == capacity || frames <= 0) {
+            dropped++;
+            return;
+        }
+        int i = count++;
+        x[i] = (float) px;
+        y[i] = (float) py;
+        vx[i] = (float) pvx;
+        vy[i] = (float) pvy;
+        size[i] = (float) halfSize;
+        life[i] = frames;
+        span[i] = frames;
+        color[i] = (byte) colorIndex; // index 128 à 255 stockés comme octets négatifs : lus avec & 0xFF
+        colorCount[colorIndex]++;
+    }
+
+    /**
+     * Émet une gerbe de particules dans toutes les directions
+     *
+     * @param px         centre x
+     * @param py         centre y
+     * @param n          nombre de particules
+     * @param speed      vitesse maximale (unités par image)
+     * @param halfSize   demi-taille initiale
+     * @param frames     durée de vie maximale en images
+     * @param firstColor premier index de couleur utilisé
+     * @param colors     nombre de couleurs utilisées à partir de firstColor
+     * @param random     générateur aléatoire
+     */
+    public void explode(double px, double py, int n, double speed, double halfSize, int frames, int firstColor,
+            int colors, SplittableRandom random) {
+        for (int k = 0; k < n; k++) {
+            double angle = random.nextDouble(2 * Math.PI);
+            double v = speed * Math.sqrt(random.nextDouble()); // répartition uniforme dans le disque
+            int f = frames / 2 + random.nextInt(frames / 2 + 1);
+            emit(px, py, v * Math.cos(angle), v * Math.sin(angle), halfSize, f, firstColor + random.nextInt(colors));
+        }
+    }
+
+    /**
+     * Avance toutes les particules d'une image et retire les particules mortes
+     */
+    public void update() {
+        float g = gravity;
+        float d = drag;
+        int i = 0;
+        while (i < count) {
+            if (--life[i] <= 0) {
+                remove(i); // la dernière particule prend sa place : même index au tour suivant
+                continue;
+            }
+            vx[i] *= d;
+            vy[i] = vy[i] * d - g;
+            x[i] += vx[i];
+            y[i] += vy[i];
+            i++;
+        }
+        version++;
+    }
+
+    /**
+     * Retire la particule i en la remplaçant par la dernière
+     */
+    private void remove(int i) {
+        colorCount[color[i] & 0xFF]--;
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        size[i] = size[last];
+        life[i] = life[last];
+        span[i] = span[last];
+        color[i] = color[last];
+    }
+
+    /**
+     * Dessine toutes les particules, couleur par couleur
+     */
+    public void draw() {
+        for (int c = 0; c < palette.length; c++) {
+            if (colorCount[c] == 0) {
+                continue;
+            }
+            StdDraw.setPenColor(palette[c]);
+            byte b = (byte) c;
+            for (int i = 0; i < count; i++) {
+                if (color[i] == b) {
+                    StdDraw.filledSquare(x[i], y[i], size[i] * life[i] / span[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recopie les particules vivantes dans un autre système de même
+     * capacité (copie figée pour le rendu)
+     *
+     * @param target le système qui reçoit la copie
+     */
+    public void copyTo(ParticleSystem target) {
+        if (target.capacity != capacity || target.palette.length != palette.length) {
+            throw new IllegalArgumentException("target has a different capacity or palette");
+        }
+        int n = count;
+        System.arraycopy(x, 0, target.x, 0, n);
+        System.arraycopy(y, 0, target.y, 0, n);
+        System.arraycopy(vx, 0, target.vx, 0, n);
+        System.arraycopy(vy, 0, target.vy, 0, n);
+        System.arraycopy(size, 0, target.size, 0, n);
+        System.arraycopy(life, 0, target.life, 0, n);
+        System.arraycopy(span, 0, target.span, 0, n);
+        System.arraycopy(color, 0, target.color, 0, n);
+        System.arraycopy(colorCount, 0, target.colorCount, 0, colorCount.length);
+        target.count = n;
+        target.version = version;
+        target.dropped = dropped;
+    }
+
+    /**
+     * Calcule le rectangle englobant toutes les particules
+     *
+     * @param bounds reçoit le centre x, le centre y, la demi-largeur et la demi-hauteur
+     * @return false s'il n'y a aucune particule
+     */
+    public boolean getBounds(double[] bounds) {
+        if (count == 0) {
+            return false;
+        }
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, x[i] - size[i]);
+            maxX = Math.max(maxX, x[i] + size[i]);
+            minY = Math.min(minY, y[i] - size[i]);
+            maxY = Math.max(maxY, y[i] + size[i]);
+        }
+        bounds[0] = (minX + maxX) / 2.0;
+        bounds[1] = (minY + maxY) / 2.0;
+        bounds[2] = (maxX - minX) / 2.0;
+        bounds[3] = (maxY - minY) / 2.0;
+        return true;
+    }
+
+    /**
+     * Retire toutes les particules
+     */
+    public void clear() {
+        count = 0;
+        Arrays.fill(colorCount, 0);
+        version++;
+    }
+
+    /**
+     * Retourne le nombre de particules vivantes
+     *
+     * @return nombre de particules
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Retourne la capacité du système
+     *
+     * @return nombre maximal de particules vivantes
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retourne une copie de la palette
+     *
+     * @return couleurs des particules
+     */
+    public Color[] getPalette() {
+        return palette.clone();
+    }
+
+    /**
+     * Retourne un numéro qui change à chaque mise à jour
+     *
+     * @return version des positions
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retourne le nombre de particules non émises faute de place
+     *
+     * @return nombre de particules perdues
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
@@ -0,0 +1,114 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Banc d'essai du rastériseur logiciel : dessine à chaque image des
+ * rectangles pleins (projectiles) et des copies de sprites depuis un atlas,
+ * avec Java 2D puis avec le rastériseur, avec et sans tampon de commandes,
+ * et affiche le temps moyen par image.
+ * <p>
+ * Utilisation : {@code java engine.RasterBenchmark [images] [rectangles] [sprites]}
+ */
+public final class RasterBenchmark {
+    private static final int SPRITE_SIZE = 16; // taille d'un sprite de l'atlas en pixels
+
+    /**
+     * Classe utilitaire : pas d'instance
+     */
+    private RasterBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int rectangles = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int sprites = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        StdDraw.setCanvasSize(700, 700);
+        StdDraw.enableDoubleBuffering();
+
+        // Positions fixes, identiques pour toutes les passes
+        Random random = new Random(42);
+        double[] rx = new double[rectangles];
+        double[] ry = new double[rectangles];
+        for (int i = 0; i < rectangles; i++) {
+            rx[i] = random.nextDouble();
+            ry[i] = random.nextDouble();
+        }
+        double[] sx = new double[sprites];
+        double[] sy = new double[sprites];
+        for (int i = 0; i < sprites; i++) {
+            sx[i] = random.nextDouble();
+            sy[i] = random.nextDouble();
+        }
+        BufferedImage atlas = createAtlas();
+
+        System.out.println(frames + " images de " + rectangles + " rectangles et " + sprites + " sprites");
+        // Les passes Java 2D d'abord : la première passe logicielle retire
+        // définitivement le tampon d'image de la mémoire accélérée
+        for (int pass = 0; pass < 4; pass++) {
+            boolean software = (pass & 2) != 0;
+            boolean batched = (pass & 1) != 0;
+            if (software) {
+                StdDraw.enableSoftwareRaster();
+            } else {
+                StdDraw.disableSoftwareRaster();
+            }
+            if (batched) {
+                StdDraw.enableCommandBuffer();
+            } else {
+                StdDraw.disableCommandBuffer();
+            }
+
+            run(frames / 4, rx, ry, sx, sy, atlas); // préchauffage
+            long start = System.nanoTime();
+            run(frames, rx, ry, sx, sy, atlas);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%-9s %-22s %8.3f ms/image  %7.1f ns/primitive%n", software ? "logiciel" : "Java 2D",
+                    batched ? "(tampon de commandes)" : "(immédiat)", elapsed / 1e6 / frames,
+                    (double) elapsed / frames / (rectangles + sprites));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Dessine les images de la passe
+     */
+    private static void run(int frames, double[] rx, double[] ry, double[] sx, double[] sy, BufferedImage atlas) {
+        for (int f = 0; f < frames; f++) {
+            StdDraw.clear(Color.BLACK);
+            for (int i = 0; i < rx.length; i++) {
+                StdDraw.setPenColor((i & 1) == 0 ? Color.YELLOW : Color.RED);
+                StdDraw.filledRectangle(rx[i], ry[i], 0.005, 0.02);
+            }
+            for (int i = 0; i < sx.length; i++) {
+                int frame = i & 3;
+                StdDraw.image(sx[i], sy[i], 0.05, 0.05, atlas, frame * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE);
+            }
+            StdDraw.show();
+        }
+    }
+
+    /**
+     * Crée un petit atlas de quatre sprites avec des pixels transparents
+     */
+    private static BufferedImage createAtlas() {
+        BufferedImage atlas = new BufferedImage(4 * SPRITE_SIZE, SPRITE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        int[] colors = { 0xFFFFFFFF, 0xFF00FF00, 0xFF00FFFF, 0xFFFF00FF };
+        for (int s = 0; s < 4; s++) {
+            for (int y = 0; y < SPRITE_SIZE; y++) {
+                for (int x = 0; x < SPRITE_SIZE; x++) {
+                    // Losange plein, coins transparents
+                    int d = Math.abs(2 * x - SPRITE_SIZE + 1) + Math.abs(2 * y - SPRITE_SIZE + 1);
+                    if (d < SPRITE_SIZE) {
+                        atlas.setRGB(s * SPRITE_SIZE + x, y, colors[s]);
+                    }
+                }
+            }
+        }
+        return atlas;
+    }
+}
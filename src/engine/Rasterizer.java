@@ -0,0 +1,205 @@
+package engine;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Rastériseur logiciel utilisé par {@link StdDraw} en mode
+ * {@code stddraw.raster=software}. Les rectangles pleins et les copies de
+ * sprites sont écrits directement dans le tableau de pixels du tampon
+ * d'image, en coordonnées entières, sans passer par Graphics2D :
+ * remplissage de lignes pour les couleurs opaques, et clé de couleur
+ * (pixel entièrement transparent ignoré) pour les sprites.
+ * <p>
+ * Les bords ne sont pas anticrénelés : chaque pixel dont le centre est dans
+ * la forme est rempli (au moins un pixel par rectangle).
+ * <p>
+ * Écrire dans le tableau de pixels du tampon d'image retire définitivement
+ * ce tampon de la mémoire accélérée. Les images sources (l'atlas de sprites,
+ * les calques) ne sont en revanche que copiées, à leur premier usage : elles
+ * restent accélérées pour Java 2D. Une source modifiée ensuite doit être
+ * oubliée avec {@link #forget(BufferedImage)}.
+ */
+final class Rasterizer {
+    private final int[] pixels; // pixels du tampon d'image (ligne par ligne)
+    private final int width; // largeur du tampon en pixels
+    private final int height; // hauteur du tampon en pixels
+    private final boolean alpha; // le tampon a un canal alpha
+    private final double scale; // pixels du tampon par pixel du canevas
+
+    private final Map<BufferedImage, int[]> sources = new WeakHashMap<>(); // copies des pixels des sources
+    private BufferedImage lastSource; // dernière image source (accès rapide)
+    private int[] lastSourcePixels; // sa copie
+
+    /**
+     * Crée un rastériseur écrivant dans une image
+     *
+     * @param target l'image cible (TYPE_INT_RGB ou TYPE_INT_ARGB)
+     * @param scale  nombre de pixels de l'image par pixel du canevas
+     */
+    Rasterizer(BufferedImage target, double scale) {
+        this.pixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+        this.width = target.getWidth();
+        this.height = target.getHeight();
+        this.alpha = target.getType() == BufferedImage.TYPE_INT_ARGB;
+        this.scale = scale;
+    }
+
+    /**
+     * Indique si une image peut être copiée par ce rastériseur
+     *
+     * @param image l'image source
+     * @return true si ses pixels sont des entiers ARGB ou RGB
+     */
+    static boolean supports(BufferedImage image) {
+        int type = image.getType();
+        return type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB;
+    }
+
+    /**
+     * Remplit un rectangle donné en coordonnées du canevas
+     *
+     * @param x    bord gauche
+     * @param y    bord haut
+     * @param w    largeur
+     * @param h    hauteur
+     * @param argb couleur
+     */
+    void fill(double x, double y, double w, double h, int argb) {
+        int x0 = (int) Math.round(x * scale);
+        int y0 = (int) Math.round(y * scale);
+        int x1 = Math.max(x0 + 1, (int) Math.round((x + w) * scale)); // au moins un pixel
+        int y1 = Math.max(y0 + 1, (int) Math.round((y + h) * scale));
+        fillRect(x0, y0, x1, y1, argb);
+    }
+
+    /**
+     * Remplit le rectangle de pixels [x0, x1[ x [y0, y1[
+     *
+     * @param x0   bord gauche (inclus)
+     * @param y0   bord haut (inclus)
+     * @param x1   bord droit (exclus)
+     * @param y1   bord bas (exclus)
+     * @param argb couleur
+     */
+    void fillRect(int x0, int y0, int x1, int y1, int argb) {
+        if (x0 < 0) x0 = 0;
+        if (y0 < 0) y0 = 0;
+        if (x1 > width) x1 = width;
+        if (y1 > height) y1 = height;
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+
+        int a = argb >>> 24;
+        if (a == 0xFF) {
+            // Couleur opaque : remplissage ligne par ligne
+            for (int row = y0 * width; row < y1 * width; row += width) {
+                Arrays.fill(pixels, row + x0, row + x1, argb);
+            }
+        } else if (a != 0) {
+            for (int row = y0 * width; row < y1 * width; row += width) {
+                for (int i = row + x0; i < row + x1; i++) {
+                    pixels[i] = blend(pixels[i], argb, a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copie une région d'image mise à l'échelle (plus proche voisin)
+     * dans le rectangle de pixels [dx0, dx1[ x [dy0, dy1[
+     *
+     * @param image image source (voir {@link #supports(BufferedImage)})
+     * @param dx0   bord gauche de la destination
+     * @param dy0   bord haut de la destination
+     * @param dx1   bord droit de la destination (exclus)
+     * @param dy1   bord bas de la destination (exclus)
+     * @param sx    bord gauche de la source
+     * @param sy    bord haut de la source
+     * @param sw    largeur de la source
+     * @param sh    hauteur de la source
+     */
+    void blit(BufferedImage image, int dx0, int dy0, int dx1, int dy1, int sx, int sy, int sw, int sh) {
+        int dw = dx1 - dx0;
+        int dh = dy1 - dy0;
+        if (dw <= 0 || dh <= 0 || sw <= 0 || sh <= 0) {
+            return;
+        }
+        int[] source = sourcePixels(image);
+        int sourceWidth = image.getWidth();
+        boolean sourceAlpha = image.getType() == BufferedImage.TYPE_INT_ARGB;
+
+        int x0 = Math.max(0, dx0);
+        int y0 = Math.max(0, dy0);
+        int x1 = Math.min(width, dx1);
+        int y1 = Math.min(height, dy1);
+
+        // Pas de la source en virgule fixe 16.16, échantillonnée au centre des pixels
+        long stepX = ((long) sw << 16) / dw;
+        long stepY = ((long) sh << 16) / dh;
+        long v = (y0 - dy0) * stepY + (stepY >> 1);
+        for (int y = y0; y < y1; y++, v += stepY) {
+            int sourceRow = (sy + (int) (v >> 16)) * sourceWidth + sx;
+            int row = y * width;
+            long u = (x0 - dx0) * stepX + (stepX >> 1);
+            for (int x = x0; x < x1; x++, u += stepX) {
+                int p = source[sourceRow + (int) (u >> 16)];
+                if (!sourceAlpha) {
+                    pixels[row + x] = p | 0xFF000000;
+                    continue;
+                }
+                int a = p >>> 24;
+                if (a == 0xFF) {
+                    pixels[row + x] = p;
+                } else if (a != 0) {
+                    pixels[row + x] = blend(pixels[row + x], p, a);
+                }
+            }
+        }
+    }
+
+    private int[] sourcePixels(BufferedImage image) {
+        if (image != lastSource) {
+            int[] copy = sources.get(image);
+            if (copy == null) {
+                // Copie sans accéder au DataBuffer : l'image reste accélérée
+                int w = image.getWidth();
+                int h = image.getHeight();
+                copy = (int[]) image.getRaster().getDataElements(0, 0, w, h, new int[w * h]);
+                sources.put(image, copy);
+            }
+            lastSourcePixels = copy;
+            lastSource = image;
+        }
+        return lastSourcePixels;
+    }
+
+    /**
+     * Oublie la copie des pixels d'une image source dont le contenu a changé
+     *
+     * @param image l'image modifiée
+     */
+    void forget(BufferedImage image) {
+        sources.remove(image);
+        if (image == lastSource) {
+            lastSource = null;
+            lastSourcePixels = null;
+        }
+    }
+
+    /**
+     * Mélange une couleur translucide sur un pixel (source par-dessus)
+     */
+    private int blend(int dst, int src, int a) {
+        int na = 255 - a;
+        int r = (((src >> 16) & 0xFF) * a + ((dst >> 16) & 0xFF) * na) / 255;
+        int g = (((src >> 8) & 0xFF) * a + ((dst >> 8) & 0xFF) * na) / 255;
+        int b = ((src & 0xFF) * a + (dst & 0xFF) * na) / 255;
+        int da = alpha ? a + ((dst >>> 24) * na) / 255 : 0xFF;
+        return (da << 24) | (r << 16) | (g << 8) | b;
+    }
+}
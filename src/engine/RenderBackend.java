@@ -0,0 +1,68 @@
+package engine;
+
+import java.awt.Frame;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+
+/**
+ * Surface d'affichage de {@link StdDraw}. StdDraw dessine toujours dans son
+ * tampon d'image ; le backend décide ce que devient ce tampon à chaque
+ * {@code show()} : fenêtre Swing, page d'une BufferStrategy, simple copie en
+ * mémoire, ou rien du tout.
+ * <p>
+ * Le backend est choisi avec la propriété {@code stddraw.backend} :
+ * {@code swing} (par défaut), {@code bufferstrategy}, {@code image} (par
+ * défaut sans écran) ou {@code none}.
+ */
+interface RenderBackend {
+    /**
+     * Crée la surface d'affichage
+     *
+     * @param offscreen  le tampon d'image de StdDraw
+     * @param width      largeur du canevas en pixels
+     * @param height     hauteur du canevas en pixels
+     * @param pixelScale pixels du tampon par pixel du canevas
+     * @param listener   StdDraw, qui reçoit les événements clavier, souris et menu
+     */
+    void open(BufferedImage offscreen, int width, int height, double pixelScale, StdDraw listener);
+
+    /**
+     * Affiche le tampon d'image
+     *
+     * @param offscreen  le tampon d'image de StdDraw
+     * @param clip       zone à afficher en pixels du tampon, ou null pour tout le tampon
+     * @param clipBounds rectangle englobant la zone, en pixels du canevas (si clip non null)
+     * @param clipPixels nombre de pixels de la zone (si clip non null)
+     * @return nombre de pixels écrits pour afficher l'image
+     */
+    long present(BufferedImage offscreen, Shape clip, Rectangle clipBounds, long clipPixels);
+
+    /**
+     * Retourne l'image actuellement affichée
+     *
+     * @param offscreen le tampon d'image de StdDraw
+     * @return l'image affichée (éventuellement le tampon lui-même)
+     */
+    BufferedImage getDisplayedImage(BufferedImage offscreen);
+
+    /**
+     * Indique si les images sont affichées en temps réel : sinon,
+     * {@code StdDraw.pause()} n'attend pas
+     *
+     * @return true si un écran affiche les images
+     */
+    boolean isRealtime();
+
+    /**
+     * Retourne la fenêtre d'affichage
+     *
+     * @return la fenêtre, ou null s'il n'y en a pas
+     */
+    Frame getFrame();
+
+    /**
+     * Libère la surface d'affichage
+     */
+    void close();
+}
@@ -0,0 +1,110 @@
+package engine;
+
+import java.awt.Color;
+import java.util.SplittableRandom;
+
+/**
+ * Fond étoilé à défilement parallaxe. Chaque plan d'étoiles est dessiné une
+ * seule fois dans un calque de la taille du canevas, puis recopié deux fois
+ * par image avec un décalage vertical : le fond ne coûte que deux copies
+ * par plan, quel que soit le nombre d'étoiles. Les plans lointains
+ * défilent plus lentement, avec des étoiles plus petites et plus sombres.
+ * <p>
+ * Le canevas est supposé couvrir le carré unité (échelle par défaut).
+ */
+public final class Starfield {
+    private final Layer[] layers; // un calque par plan, du plus lointain au plus proche
+    private final double[] speeds; // facteur de vitesse de chaque plan
+    private final double[][] starX; // positions x des étoiles de chaque plan
+    private final double[][] starY; // positions y des étoiles de chaque plan
+    private final double[] starSize; // demi-taille des étoiles de chaque plan
+    private final Color[] colors; // couleur des étoiles de chaque plan
+
+    /**
+     * Crée un fond étoilé
+     *
+     * @param planes        nombre de plans
+     * @param starsPerPlane nombre d'étoiles par plan
+     * @param seed          graine du placement des étoiles
+     */
+    public Starfield(int planes, int starsPerPlane, long seed) {
+        if (planes <= 0 || starsPerPlane < 0) {
+            throw new IllegalArgumentException("invalid starfield size");
+        }
+        layers = new Layer[planes];
+        speeds = new double[planes];
+        starX = new double[planes][starsPerPlane];
+        starY = new double[planes][starsPerPlane];
+        starSize = new double[planes];
+        colors = new Color[planes];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int p = 0; p < planes; p++) {
+            double depth = (p + 1.0) / planes; // 1 pour le plan le plus proche
+            layers[p] = new Layer(0.5, 0.5, 0.5, 0.5);
+            speeds[p] = depth;
+            starSize[p] = 0.001 + 0.0015 * depth;
+            int grey = (int) (90 + 165 * depth);
+            colors[p] = new Color(grey, grey, Math.min(255, grey + 20));
+            for (int i = 0; i < starsPerPlane; i++) {
+                starX[p][i] = random.nextDouble();
+                starY[p][i] = random.nextDouble();
+            }
+        }
+    }
+
+    /**
+     * Dessine le fond pour une distance parcourue
+     *
+     * @param distance distance parcourue depuis le début (en hauteurs d'écran)
+     */
+    public void draw(double distance) {
+        for (int p = 0; p < layers.length; p++) {
+            Layer layer = layers[p];
+            if (layer.begin(0)) {
+                drawPlane(p);
+                layer.end();
+            }
+            double offset = distance * speeds[p] % 1.0;
+            if (offset < 0) {
+                offset += 1.0;
+            }
+            // Deux copies bout à bout : la tuile se répète verticalement
+            layer.draw(0.5, 0.5 - offset);
+            layer.draw(0.5, 1.5 - offset);
+        }
+    }
+
+    /**
+     * Dessine les étoiles d'un plan dans son calque. Une étoile à cheval sur
+     * le bord haut ou bas est aussi dessinée de l'autre côté, pour que la
+     * tuile se raccorde sans coupure.
+     */
+    private void drawPlane(int p) {
+        StdDraw.setPenColor(colors[p]);
+        double half = starSize[p];
+        for (int i = 0; i < starX[p].length; i++) {
+            double x = starX[p][i];
+            double y = starY[p][i];
+            StdDraw.filledSquare(x, y, half);
+            if (y < half) {
+                StdDraw.filledSquare(x, y + 1, half);
+            } else if (y > 1 - half) {
+                StdDraw.filledSquare(x, y - 1, half);
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre de fois où un plan a été dessiné dans son calque
+     *
+     * @return nombre de rendus des calques
+     */
+    public int getRenderCount() {
+        int renders = 0;
+        for (Layer layer : layers) {
+            renders += layer.getRenderCount();
+        }
+        return renders;
+    }
+}
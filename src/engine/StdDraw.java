@@ -28,18 +28,19 @@ package engine;
  *
  ******************************************************************************/
 
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
-import java.awt.Component;
 import java.awt.FileDialog;
 import java.awt.Font;
 import java.awt.FontMetrics;
-import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.MediaTracker;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
-import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
@@ -47,10 +48,12 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Arc2D;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.DirectColorModel;
@@ -61,16 +64,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
-import javax.swing.JFrame;
-import javax.swing.JLabel;
-import javax.swing.JMenu;
-import javax.swing.JMenuBar;
-import javax.swing.JMenuItem;
-import javax.swing.KeyStroke;
 
 /**
  * The {@code StdDraw} class provides a basic capability for creating drawings
@@ -399,6 +396,9 @@ import javax.swing.KeyStroke;
  * <li>{@link #hasNextKeyTyped()}
  * <li>{@link #nextKeyTyped()}
  * <li>{@link #isKeyPressed(int keycode)}
+ * <li>{@link #getKeyPressCount(int keycode)}
+ * <li>{@link #getKeyReleaseCount(int keycode)}
+ * <li>{@link #getKeyEvents()}
  * </ul>
  * <p>
  * If the user types lots of keys, they will be saved in a list until you
@@ -406,7 +406,10 @@ import javax.swing.KeyStroke;
  * (that your program has not yet processed). The second method returns the next
  * key that the user typed (that your program has not yet processed) and removes
  * it from the list of saved keystrokes. The third method tells you whether a
- * key is currently being pressed.
+ * key is currently being pressed. The last two methods count how many times a
+ * key went down or up, so that a program polling once per frame can detect
+ * presses and releases that happened between two polls. The last method gives
+ * access to a lock-free queue of every key transition with its timestamp.
  * <p>
  * <b>Accessing control parameters.</b> You can use the following methods to
  * access the current pen color, pen radius, and font:
@@ -598,14 +601,71 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	private static Font font;
 
 	// double buffered graphics
-	private static BufferedImage offscreenImage, onscreenImage;
-	private static Graphics2D offscreen, onscreen;
+	private static BufferedImage offscreenImage;
+	private static Graphics2D offscreen;
+
+	// number of framebuffer pixels per canvas pixel: the scale of the display
+	// (2 on Retina/HiDPI screens, 1 otherwise) unless -Dstddraw.scale is given
+	private static double pixelScale = 1.0;
+
+	// the framebuffers only need an alpha channel if -Dstddraw.alpha=true
+	// (every frame is cleared with an opaque color, so RGB is enough)
+	private static final boolean ALPHA = Boolean.getBoolean("stddraw.alpha");
+
+	// framebuffer pixels written by clear() and show() since the last show(),
+	// and the total for the last frame
+	private static long framePixels = 0;
+	private static long lastFramePixels = 0;
+
+	// transforms of the offscreen graphics: canvas pixels and raw framebuffer
+	// pixels (used to blit pre-rendered images without resampling)
+	private static AffineTransform canvasTransform = new AffineTransform();
+	private static AffineTransform deviceTransform = new AffineTransform();
+
+	// true while the offscreen graphics use nearest-neighbour image filtering
+	private static boolean nearestNeighbour = false;
+
+	// batched drawing: between clear() and show(), filled squares and
+	// rectangles, text and images are recorded, then drawn sorted by state
+	private static final CommandBuffer commands = new CommandBuffer();
+	private static boolean batching = false;
+
+	// asynchronous capture of every shown frame (see startCapture())
+	private static FrameCapture capture;
+
+	// software rasterization: filled rectangles and image blits are written
+	// straight into the pixels of the offscreen image (-Dstddraw.raster=software)
+	private static boolean softwareRaster = "software".equalsIgnoreCase(System.getProperty("stddraw.raster"));
+	private static Rasterizer rasterizer;
+
+	// dirty-rectangle rendering: while clipped, clear(), drawing and show() only
+	// touch the union of the rectangles given to setClip()
+	private static final Path2D.Double clipPath = new Path2D.Double();
+	private static final Path2D.Double deviceClipPath = new Path2D.Double();
+	private static final Rectangle clipBounds = new Rectangle();
+	private static boolean clipped = false;
+	private static long clipPixels = 0;
+
+	// layers: while drawing into a layer image, the offscreen graphics state
+	// of the canvas is saved here and restored by endLayer()
+	private static BufferedImage layerImage;
+	private static Graphics2D savedOffscreen;
+	private static AffineTransform savedCanvasTransform, savedDeviceTransform;
+	private static boolean savedDefer, savedNearestNeighbour;
+
+	// incremented each time the mapping from user coordinates to framebuffer
+	// pixels changes, so that clients can invalidate pre-rendered images
+	private static int scaleVersion = 0;
 
 	// singleton for callbacks: avoids generation of extra .class files
 	private static StdDraw std = new StdDraw();
 
-	// the frame for drawing to the screen
-	private static JFrame frame;
+	// what show() does with the offscreen image: a Swing window (swing), a
+	// page-flipped canvas (bufferstrategy), an in-memory copy (image) or nothing
+	// (none), selected with -Dstddraw.backend; image when running headless
+	private static final String BACKEND = System.getProperty("stddraw.backend",
+			GraphicsEnvironment.isHeadless() ? "image" : "swing");
+	private static RenderBackend backend;
 
 	// mouse state
 	private static boolean isMousePressed = false;
@@ -616,7 +676,16 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	private static LinkedList<Character> keysTyped;
 
 	// set of key codes currently pressed down
-	private static TreeSet<Integer> keysDown;
+	// (one bit per key code, read without locking)
+	private static final KeyBitSet keysDown = new KeyBitSet();
+
+	// number of press and release transitions for each key code below KEY_COUNTED
+	private static final int KEY_COUNTED = 256;
+	private static final AtomicIntegerArray keyPresses = new AtomicIntegerArray(KEY_COUNTED);
+	private static final AtomicIntegerArray keyReleases = new AtomicIntegerArray(KEY_COUNTED);
+
+	// timestamped key transitions, for a single consumer (see getKeyEvents)
+	private static final KeyEventRing keyEvents = new KeyEventRing(1024);
 
 	// singleton pattern: client can't instantiate
 	private StdDraw()
@@ -666,15 +735,29 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	// init
 	private static void init()
 	{
-		if (frame != null)
-			//frame.setVisible(false);
-			frame.dispose();
-		frame = new JFrame();
-		offscreenImage = new BufferedImage(2 * width, 2 * height, BufferedImage.TYPE_INT_ARGB);
-		onscreenImage = new BufferedImage(2 * width, 2 * height, BufferedImage.TYPE_INT_ARGB);
+		if (backend != null)
+			backend.close();
+		pixelScale = detectPixelScale();
+		int deviceWidth = (int) Math.round(pixelScale * width);
+		int deviceHeight = (int) Math.round(pixelScale * height);
+		int imageType = ALPHA ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		offscreenImage = new BufferedImage(deviceWidth, deviceHeight, imageType);
 		offscreen = offscreenImage.createGraphics();
-		onscreen = onscreenImage.createGraphics();
-		offscreen.scale(2.0, 2.0); // since we made it 2x as big
+		offscreen.scale(pixelScale, pixelScale); // since we made it pixelScale times as big
+		canvasTransform = offscreen.getTransform();
+		nearestNeighbour = false;
+		clipped = false;
+		rasterizer = null;
+		commands.setCanvasSize(width, height);
+		scaleVersion++;
+
+		// initialize keystroke buffers
+		keysTyped = new LinkedList<Character>();
+		keysDown.clearAll();
+
+		// frame stuff
+		backend = createBackend();
+		backend.open(offscreenImage, width, height, pixelScale, std);
 
 		setXscale();
 		setYscale();
@@ -685,51 +768,45 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		setFont();
 		clear();
 
-		// initialize keystroke buffers
-		keysTyped = new LinkedList<Character>();
-		keysDown = new TreeSet<Integer>();
-
 		// add antialiasing
 		RenderingHints hints = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 		hints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
 		offscreen.addRenderingHints(hints);
+	}
 
-		// frame stuff
-		RetinaImageIcon icon = new RetinaImageIcon(onscreenImage);
-		JLabel draw = new JLabel(icon);
-
-		draw.addMouseListener(std);
-		draw.addMouseMotionListener(std);
-
-		frame.setContentPane(draw);
-		frame.addKeyListener(std); // JLabel cannot get keyboard focus
-		frame.setFocusTraversalKeysEnabled(false); // allow VK_TAB with isKeyPressed()
-		frame.setResizable(false);
-		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // closes all windows
-		// frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // closes only
-		// current window
-		frame.setTitle("Standard Draw");
-		frame.setJMenuBar(createMenuBar());
-		frame.pack();
-		frame.requestFocusInWindow();
-		frame.setVisible(true);
-	}
-
-	// create the menu bar (changed to private)
-	private static JMenuBar createMenuBar()
-	{
-		JMenuBar menuBar = new JMenuBar();
-		JMenu menu = new JMenu("File");
-		menuBar.add(menu);
-		JMenuItem menuItem1 = new JMenuItem(" Save...   ");
-		menuItem1.addActionListener(std);
-		// Java 10+: replace getMenuShortcutKeyMask() with getMenuShortcutKeyMaskEx()
-		menuItem1.setAccelerator(
-				KeyStroke.getKeyStroke(KeyEvent.VK_S, Toolkit.getDefaultToolkit().getMenuShortcutKeyMask()));
-		menu.add(menuItem1);
-		return menuBar;
+	// the display backend selected with -Dstddraw.backend
+	private static RenderBackend createBackend()
+	{
+		switch (BACKEND.toLowerCase())
+		{
+		case "bufferstrategy":
+			return new BufferStrategyBackend();
+		case "image":
+			return new ImageBackend();
+		case "none":
+			return new NullBackend();
+		case "swing":
+			return new SwingBackend();
+		default:
+			throw new IllegalArgumentException("unknown stddraw.backend: " + BACKEND);
+		}
+	}
+
+	// number of framebuffer pixels per canvas pixel on the default screen
+	private static double detectPixelScale()
+	{
+		String scale = System.getProperty("stddraw.scale");
+		if (scale != null)
+			return Math.max(1.0, Double.parseDouble(scale));
+		if (GraphicsEnvironment.isHeadless())
+			return 1.0;
+		GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration();
+		AffineTransform transform = gc.getDefaultTransform();
+		return Math.max(1.0, Math.max(transform.getScaleX(), transform.getScaleY()));
 	}
 
+
 	/***************************************************************************
 	 * User and screen coordinate systems.
 	 ***************************************************************************/
@@ -804,6 +881,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		{
 			xmin = min - BORDER * size;
 			xmax = max + BORDER * size;
+			scaleVersion++;
 		}
 	}
 
@@ -827,6 +905,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		{
 			ymin = min - BORDER * size;
 			ymax = max + BORDER * size;
+			scaleVersion++;
 		}
 	}
 
@@ -853,6 +932,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 			xmax = max + BORDER * size;
 			ymin = min - BORDER * size;
 			ymax = max + BORDER * size;
+			scaleVersion++;
 		}
 	}
 
@@ -888,6 +968,44 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		return ymax - y * (ymax - ymin) / height;
 	}
 
+	/**
+	 * Returns the number of framebuffer pixels spanned by the given width in user
+	 * coordinates. Useful to pre-render images at the exact resolution they will
+	 * be displayed at.
+	 *
+	 * @param w the width in user coordinates
+	 * @return the width in framebuffer pixels
+	 */
+	public static int deviceWidth(double w)
+	{
+		return (int) Math.round(factorX(w) * pixelScale);
+	}
+
+	/**
+	 * Returns the number of framebuffer pixels spanned by the given height in
+	 * user coordinates.
+	 *
+	 * @param h the height in user coordinates
+	 * @return the height in framebuffer pixels
+	 */
+	public static int deviceHeight(double h)
+	{
+		return (int) Math.round(factorY(h) * pixelScale);
+	}
+
+	/**
+	 * Returns a counter that changes each time the canvas size or the user
+	 * coordinate system changes. Images pre-rendered with
+	 * {@link #deviceWidth(double)} and {@link #deviceHeight(double)} must be
+	 * rebuilt when this value changes.
+	 *
+	 * @return the current scale version
+	 */
+	public static int getScaleVersion()
+	{
+		return scaleVersion;
+	}
+
 
 	/**
 	 * Clears the screen to the default color (white).
@@ -906,9 +1024,11 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	public static void clear(Color color)
 	{
 		validateNotNull(color, "color");
+		commands.reset(); // everything recorded so far is erased anyway
 		offscreen.setColor(color);
 		offscreen.fillRect(0, 0, width, height);
 		offscreen.setColor(penColor);
+		framePixels += clipped ? clipPixels : devicePixels();
 		draw();
 	}
 
@@ -1059,6 +1179,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void line(double x0, double y0, double x1, double y1)
 	{
+		flushCommands();
 		validate(x0, "x0");
 		validate(y0, "y0");
 		validate(x1, "x1");
@@ -1096,6 +1217,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void point(double x, double y)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 
@@ -1126,6 +1248,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void circle(double x, double y, double radius)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(radius, "radius");
@@ -1154,6 +1277,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void filledCircle(double x, double y, double radius)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(radius, "radius");
@@ -1185,6 +1309,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void ellipse(double x, double y, double semiMajorAxis, double semiMinorAxis)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(semiMajorAxis, "semimajor axis");
@@ -1217,6 +1342,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void filledEllipse(double x, double y, double semiMajorAxis, double semiMinorAxis)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(semiMajorAxis, "semimajor axis");
@@ -1251,6 +1377,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void arc(double x, double y, double radius, double angle1, double angle2)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(radius, "arc radius");
@@ -1282,6 +1409,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void square(double x, double y, double halfLength)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(halfLength, "halfLength");
@@ -1319,7 +1447,18 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		double ys = scaleY(y);
 		double ws = factorX(2 * halfLength);
 		double hs = factorY(2 * halfLength);
-		if (ws <= 1 && hs <= 1)
+		if (recording())
+		{
+			if (ws <= 1 && hs <= 1)
+				commands.fill(Math.round(xs), Math.round(ys), 1, 1, penColor);
+			else
+				commands.fill(xs - ws / 2, ys - hs / 2, ws, hs, penColor);
+			return;
+		}
+		Rasterizer raster = raster();
+		if (raster != null)
+			raster.fill(xs - ws / 2, ys - hs / 2, ws, hs, penColor.getRGB());
+		else if (ws <= 1 && hs <= 1)
 			pixel(x, y);
 		else
 			offscreen.fill(new Rectangle2D.Double(xs - ws / 2, ys - hs / 2, ws, hs));
@@ -1341,6 +1480,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void rectangle(double x, double y, double halfWidth, double halfHeight)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(halfWidth, "halfWidth");
@@ -1384,7 +1524,18 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		double ys = scaleY(y);
 		double ws = factorX(2 * halfWidth);
 		double hs = factorY(2 * halfHeight);
-		if (ws <= 1 && hs <= 1)
+		if (recording())
+		{
+			if (ws <= 1 && hs <= 1)
+				commands.fill(Math.round(xs), Math.round(ys), 1, 1, penColor);
+			else
+				commands.fill(xs - ws / 2, ys - hs / 2, ws, hs, penColor);
+			return;
+		}
+		Rasterizer raster = raster();
+		if (raster != null)
+			raster.fill(xs - ws / 2, ys - hs / 2, ws, hs, penColor.getRGB());
+		else if (ws <= 1 && hs <= 1)
 			pixel(x, y);
 		else
 			offscreen.fill(new Rectangle2D.Double(xs - ws / 2, ys - hs / 2, ws, hs));
@@ -1407,6 +1558,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void polygon(double[] x, double[] y)
 	{
+		flushCommands();
 		validateNotNull(x, "x-coordinate array");
 		validateNotNull(y, "y-coordinate array");
 		for (int i = 0; i < x.length; i++)
@@ -1446,6 +1598,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void filledPolygon(double[] x, double[] y)
 	{
+		flushCommands();
 		validateNotNull(x, "x-coordinate array");
 		validateNotNull(y, "y-coordinate array");
 		for (int i = 0; i < x.length; i++)
@@ -1555,6 +1708,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void picture(double x, double y, String filename)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validateNotNull(filename, "filename");
@@ -1589,11 +1743,13 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void picture(double x, double y, String filename, double degrees)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(degrees, "degrees");
 		validateNotNull(filename, "filename");
 
+		smoothImages();
 		// BufferedImage image = getImage(filename);
 		Image image = getImage(filename);
 		double xs = scaleX(x);
@@ -1631,6 +1787,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void picture(double x, double y, String filename, double scaledWidth, double scaledHeight)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(scaledWidth, "scaled width");
@@ -1639,6 +1796,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		validateNonnegative(scaledWidth, "scaled width");
 		validateNonnegative(scaledHeight, "scaled height");
 
+		smoothImages();
 		Image image = getImage(filename);
 		double xs = scaleX(x);
 		double ys = scaleY(y);
@@ -1675,6 +1833,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	public static void picture(double x, double y, String filename, double scaledWidth, double scaledHeight,
 			double degrees)
 	{
+		flushCommands();
 		validate(x, "x");
 		validate(y, "y");
 		validate(scaledWidth, "scaled width");
@@ -1684,6 +1843,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		validateNonnegative(scaledWidth, "scaled width");
 		validateNonnegative(scaledHeight, "scaled height");
 
+		smoothImages();
 		Image image = getImage(filename);
 		double xs = scaleX(x);
 		double ys = scaleY(y);
@@ -1702,6 +1862,121 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		draw();
 	}
 
+	/**
+	 * Draws the given pre-rendered image centered at (<em>x</em>, <em>y</em>),
+	 * one image pixel per framebuffer pixel. Unlike {@code picture()}, the image
+	 * is neither resampled nor looked up by filename, so this is a single plain
+	 * blit. Use {@link #deviceWidth(double)} and {@link #deviceHeight(double)} to
+	 * size the image.
+	 *
+	 * @param x     the center <em>x</em>-coordinate of the image
+	 * @param y     the center <em>y</em>-coordinate of the image
+	 * @param image the image to draw
+	 * @throws IllegalArgumentException if {@code image} is {@code null}
+	 * @throws IllegalArgumentException if either {@code x} or {@code y} is either
+	 *                                  NaN or infinite
+	 */
+	public static void image(double x, double y, BufferedImage image)
+	{
+		validate(x, "x");
+		validate(y, "y");
+		validateNotNull(image, "image");
+
+		int w = image.getWidth();
+		int h = image.getHeight();
+		int dx = (int) Math.round(scaleX(x) * pixelScale - w / 2.0);
+		int dy = (int) Math.round(scaleY(y) * pixelScale - h / 2.0);
+		if (recording())
+		{
+			commands.image(image, dx, dy, w, h, 0, 0, w, h, pixelScale);
+			return;
+		}
+		Rasterizer raster = raster();
+		if (raster != null && Rasterizer.supports(image))
+		{
+			raster.blit(image, dx, dy, dx + w, dy + h, 0, 0, w, h);
+			draw();
+			return;
+		}
+		offscreen.setTransform(deviceTransform);
+		offscreen.drawImage(image, dx, dy, null);
+		offscreen.setTransform(canvasTransform);
+		draw();
+	}
+
+	/**
+	 * Draws a sub-rectangle of the given image, scaled to <em>w</em>-by-<em>h</em>
+	 * user units and centered at (<em>x</em>, <em>y</em>). The image is scaled
+	 * with nearest-neighbour filtering so that pixel art stays sharp; drawing
+	 * many regions of the same large image (a texture atlas) keeps a single
+	 * source surface for all blits.
+	 *
+	 * @param x     the center <em>x</em>-coordinate of the drawn region
+	 * @param y     the center <em>y</em>-coordinate of the drawn region
+	 * @param w     the width of the drawn region in user coordinates
+	 * @param h     the height of the drawn region in user coordinates
+	 * @param image the source image
+	 * @param sx    the left edge of the source rectangle, in image pixels
+	 * @param sy    the top edge of the source rectangle, in image pixels
+	 * @param sw    the width of the source rectangle, in image pixels
+	 * @param sh    the height of the source rectangle, in image pixels
+	 * @throws IllegalArgumentException if {@code image} is {@code null}
+	 * @throws IllegalArgumentException if any coordinate is either NaN or
+	 *                                  infinite
+	 */
+	public static void image(double x, double y, double w, double h, BufferedImage image, int sx, int sy, int sw,
+			int sh)
+	{
+		validate(x, "x");
+		validate(y, "y");
+		validate(w, "w");
+		validate(h, "h");
+		validateNotNull(image, "image");
+
+		int dx1 = (int) Math.round(scaleX(x - w / 2) * pixelScale);
+		int dx2 = (int) Math.round(scaleX(x + w / 2) * pixelScale);
+		int dy1 = (int) Math.round(scaleY(y + h / 2) * pixelScale);
+		int dy2 = (int) Math.round(scaleY(y - h / 2) * pixelScale);
+		if (recording())
+		{
+			commands.image(image, dx1, dy1, dx2 - dx1, dy2 - dy1, sx, sy, sw, sh, pixelScale);
+			return;
+		}
+		Rasterizer raster = raster();
+		if (raster != null && Rasterizer.supports(image))
+		{
+			raster.blit(image, dx1, dy1, dx2, dy2, sx, sy, sw, sh);
+			draw();
+			return;
+		}
+		sharpImages();
+		offscreen.setTransform(deviceTransform);
+		offscreen.drawImage(image, dx1, dy1, dx2, dy2, sx, sy, sx + sw, sy + sh, null);
+		offscreen.setTransform(canvasTransform);
+		draw();
+	}
+
+	// use nearest-neighbour filtering to rescale images (keeps pixel art sharp)
+	private static void sharpImages()
+	{
+		if (!nearestNeighbour)
+		{
+			offscreen.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+			nearestNeighbour = true;
+		}
+	}
+
+	// restore the default (smooth) filtering used to rescale pictures
+	private static void smoothImages()
+	{
+		if (nearestNeighbour)
+		{
+			offscreen.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			nearestNeighbour = false;
+		}
+	}
+
 	/***************************************************************************
 	 * Drawing text.
 	 ***************************************************************************/
@@ -1723,14 +1998,12 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		validate(y, "y");
 		validateNotNull(text, "text");
 
-		offscreen.setFont(font);
-		FontMetrics metrics = offscreen.getFontMetrics();
+		FontMetrics metrics = offscreen.getFontMetrics(font);
 		double xs = scaleX(x);
 		double ys = scaleY(y);
 		int ws = metrics.stringWidth(text);
 		int hs = metrics.getDescent();
-		offscreen.drawString(text, (float) (xs - ws / 2.0), (float) (ys + hs));
-		draw();
+		drawString(text, xs - ws / 2.0, ys + hs, ws, metrics);
 	}
 
 	/**
@@ -1754,9 +2027,26 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 
 		double xs = scaleX(x);
 		double ys = scaleY(y);
+		flushCommands();
+		boolean wasBatching = batching;
+		batching = false; // rotated text cannot be recorded
 		offscreen.rotate(Math.toRadians(-degrees), xs, ys);
 		text(x, y, text);
 		offscreen.rotate(Math.toRadians(+degrees), xs, ys);
+		batching = wasBatching;
+	}
+
+	// draw (or record) a string whose baseline starts at screen coordinates (xs, ys)
+	private static void drawString(String text, double xs, double ys, int ws, FontMetrics metrics)
+	{
+		if (recording())
+		{
+			commands.text(xs, ys, text, font, penColor, ws, metrics.getAscent(), metrics.getDescent());
+			return;
+		}
+		offscreen.setFont(font);
+		offscreen.drawString(text, (float) xs, (float) ys);
+		draw();
 	}
 
 
@@ -1777,13 +2067,11 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		validate(y, "y");
 		validateNotNull(text, "text");
 
-		offscreen.setFont(font);
-		FontMetrics metrics = offscreen.getFontMetrics();
+		FontMetrics metrics = offscreen.getFontMetrics(font);
 		double xs = scaleX(x);
 		double ys = scaleY(y);
 		int hs = metrics.getDescent();
-		offscreen.drawString(text, (float) xs, (float) (ys + hs));
-		draw();
+		drawString(text, xs, ys + hs, metrics.stringWidth(text), metrics);
 	}
 
 	/**
@@ -1803,14 +2091,12 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		validate(y, "y");
 		validateNotNull(text, "text");
 
-		offscreen.setFont(font);
-		FontMetrics metrics = offscreen.getFontMetrics();
+		FontMetrics metrics = offscreen.getFontMetrics(font);
 		double xs = scaleX(x);
 		double ys = scaleY(y);
 		int ws = metrics.stringWidth(text);
 		int hs = metrics.getDescent();
-		offscreen.drawString(text, (float) (xs - ws), (float) (ys + hs));
-		draw();
+		drawString(text, xs - ws, ys + hs, ws, metrics);
 	}
 
 
@@ -1833,13 +2119,17 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 
 	/**
 	 * Pauses for t milliseconds. This method is intended to support computer
-	 * animations.
+	 * animations. Returns immediately when frames are not displayed in real
+	 * time (the {@code image} and {@code none} backends), so that animations
+	 * run at full speed.
 	 * 
 	 * @param t number of milliseconds
 	 */
 	public static void pause(int t)
 	{
 		validateNonnegative(t, "t");
+		if (!backend.isRealtime())
+			return;
 		try
 		{
 			Thread.sleep(t);
@@ -1856,8 +2146,64 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void show()
 	{
-		onscreen.drawImage(offscreenImage, 0, 0, null);
-		frame.repaint();
+		flushCommands();
+		commands.endFrame();
+		if (clipped)
+			framePixels += backend.present(offscreenImage, deviceClipPath, clipBounds, clipPixels);
+		else
+			framePixels += backend.present(offscreenImage, null, null, 0);
+		if (capture != null)
+			capture.capture(offscreenImage);
+		lastFramePixels = framePixels;
+		framePixels = 0;
+	}
+
+	// number of pixels in one framebuffer
+	private static long devicePixels()
+	{
+		return (long) offscreenImage.getWidth() * offscreenImage.getHeight();
+	}
+
+	/**
+	 * Returns true if frames are displayed in real time on a screen. With the
+	 * {@code image} and {@code none} backends nothing is watching, so
+	 * animations need not wait between frames (see {@link #pause(int)}).
+	 *
+	 * @return {@code true} if a window displays the frames
+	 */
+	public static boolean isRealtime()
+	{
+		return backend.isRealtime();
+	}
+
+	/**
+	 * Returns the number of framebuffer pixels written by full-canvas operations
+	 * ({@code clear()} and the copy to the screen in {@code show()}) during the
+	 * last frame. This is the fixed fill-rate cost paid every frame, independent
+	 * of what is drawn.
+	 *
+	 * @return the number of pixels written during the last frame
+	 */
+	public static long getFramePixels()
+	{
+		return lastFramePixels;
+	}
+
+	/**
+	 * Returns the number of framebuffer pixels per canvas pixel (1 on standard
+	 * displays, 2 on Retina/HiDPI displays).
+	 *
+	 * @return the pixel scale
+	 */
+	public static double getPixelScale()
+	{
+		return pixelScale;
+	}
+
+	// the image currently displayed on screen
+	private static BufferedImage displayedImage()
+	{
+		return backend.getDisplayedImage(offscreenImage);
 	}
 
 	// draw onscreen if defer is false
@@ -1884,9 +2230,294 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void disableDoubleBuffering()
 	{
+		flushCommands();
 		defer = false;
 	}
 
+	/**
+	 * Restricts all drawing to the union of the given rectangles, until
+	 * {@link #clearClip()} is called. While clipped, {@code clear()} only erases
+	 * these rectangles and {@code show()} only copies them to the screen (the
+	 * {@code bufferstrategy} backend still flips the whole frame). This lets an
+	 * animation redraw only the parts of the canvas that changed.
+	 *
+	 * @param x          the <em>x</em>-coordinates of the rectangle centers
+	 * @param y          the <em>y</em>-coordinates of the rectangle centers
+	 * @param halfWidth  the half widths of the rectangles
+	 * @param halfHeight the half heights of the rectangles
+	 * @param n          the number of rectangles to use from the arrays
+	 * @throws IllegalArgumentException if any array is {@code null}
+	 */
+	public static void setClip(double[] x, double[] y, double[] halfWidth, double[] halfHeight, int n)
+	{
+		validateNotNull(x, "x-coordinate array");
+		validateNotNull(y, "y-coordinate array");
+		validateNotNull(halfWidth, "half width array");
+		validateNotNull(halfHeight, "half height array");
+		flushCommands();
+
+		clipPath.reset();
+		deviceClipPath.reset();
+		clipPixels = 0;
+		int minX = width, minY = height, maxX = 0, maxY = 0;
+		for (int i = 0; i < n; i++)
+		{
+			// whole canvas pixels, clamped to the canvas
+			int x0 = Math.max(0, (int) Math.floor(scaleX(x[i] - halfWidth[i])));
+			int x1 = Math.min(width, (int) Math.ceil(scaleX(x[i] + halfWidth[i])));
+			int y0 = Math.max(0, (int) Math.floor(scaleY(y[i] + halfHeight[i])));
+			int y1 = Math.min(height, (int) Math.ceil(scaleY(y[i] - halfHeight[i])));
+			if (x0 >= x1 || y0 >= y1)
+				continue;
+			appendRectangle(clipPath, x0, y0, x1, y1, 1.0);
+			appendRectangle(deviceClipPath, x0, y0, x1, y1, pixelScale);
+			clipPixels += Math.round((x1 - x0) * (y1 - y0) * pixelScale * pixelScale);
+			minX = Math.min(minX, x0);
+			minY = Math.min(minY, y0);
+			maxX = Math.max(maxX, x1);
+			maxY = Math.max(maxY, y1);
+		}
+		clipBounds.setBounds(minX, minY, Math.max(0, maxX - minX), Math.max(0, maxY - minY));
+		offscreen.setClip(clipPath);
+		clipped = true;
+	}
+
+	// add the rectangle [x0, x1] x [y0, y1], multiplied by scale, to a path
+	private static void appendRectangle(Path2D.Double path, int x0, int y0, int x1, int y1, double scale)
+	{
+		path.moveTo(x0 * scale, y0 * scale);
+		path.lineTo(x1 * scale, y0 * scale);
+		path.lineTo(x1 * scale, y1 * scale);
+		path.lineTo(x0 * scale, y1 * scale);
+		path.closePath();
+	}
+
+	/**
+	 * Removes the clip set by {@link #setClip(double[], double[], double[], double[], int)}.
+	 */
+	public static void clearClip()
+	{
+		flushCommands();
+		offscreen.setClip(null);
+		clipped = false;
+	}
+
+	/**
+	 * Enables the command buffer. While double buffering is enabled, filled
+	 * squares and rectangles, text and images drawn between {@code clear()} and
+	 * {@code show()} are recorded instead of being drawn immediately. At
+	 * {@code show()} they are sorted by kind and by color, font or image and
+	 * drawn with as few graphics state changes as possible. Primitives that
+	 * overlap keep their relative order, so the result looks the same.
+	 */
+	public static void enableCommandBuffer()
+	{
+		batching = true;
+	}
+
+	/**
+	 * Disables the command buffer, drawing any recorded primitive first.
+	 */
+	public static void disableCommandBuffer()
+	{
+		flushCommands();
+		batching = false;
+	}
+
+	/**
+	 * Returns the number of primitives drawn through the command buffer during
+	 * the last frame.
+	 *
+	 * @return the number of recorded commands in the last frame
+	 */
+	public static int getCommandCount()
+	{
+		return commands.getCommandCount();
+	}
+
+	/**
+	 * Returns the number of graphics state changes (color, font, image) made by
+	 * the command buffer during the last frame.
+	 *
+	 * @return the number of state changes in the last frame
+	 */
+	public static int getStateChangeCount()
+	{
+		return commands.getStateChangeCount();
+	}
+
+	/**
+	 * Redirects all subsequent drawing into the given image until
+	 * {@link #endLayer()} is called. The image is cleared to transparent first.
+	 * It covers the framebuffer pixels that {@link #image(double, double, BufferedImage)}
+	 * would cover when drawing it centered at (<em>x</em>, <em>y</em>): drawing
+	 * into a layer and then blitting it there looks the same as drawing
+	 * directly, but the layer can be blitted again on the next frames as long
+	 * as its content does not change.
+	 *
+	 * @param image the layer image (with an alpha channel), sized with
+	 *              {@link #deviceWidth(double)} and {@link #deviceHeight(double)}
+	 * @param x     the center <em>x</em>-coordinate of the layer
+	 * @param y     the center <em>y</em>-coordinate of the layer
+	 * @throws IllegalArgumentException if {@code image} is {@code null}
+	 * @throws IllegalArgumentException if either {@code x} or {@code y} is either
+	 *                                  NaN or infinite
+	 * @throws IllegalStateException    if a layer is already being drawn
+	 */
+	public static void beginLayer(BufferedImage image, double x, double y)
+	{
+		validate(x, "x");
+		validate(y, "y");
+		validateNotNull(image, "image");
+		if (layerImage != null)
+			throw new IllegalStateException("layers cannot be nested");
+		flushCommands();
+
+		int dx = (int) Math.round(scaleX(x) * pixelScale - image.getWidth() / 2.0);
+		int dy = (int) Math.round(scaleY(y) * pixelScale - image.getHeight() / 2.0);
+		savedOffscreen = offscreen;
+		savedCanvasTransform = canvasTransform;
+		savedDeviceTransform = deviceTransform;
+		savedDefer = defer;
+		savedNearestNeighbour = nearestNeighbour;
+		layerImage = image;
+
+		offscreen = image.createGraphics();
+		offscreen.setComposite(AlphaComposite.Clear);
+		offscreen.fillRect(0, 0, image.getWidth(), image.getHeight());
+		offscreen.setComposite(AlphaComposite.SrcOver);
+		offscreen.setRenderingHints(savedOffscreen.getRenderingHints());
+		deviceTransform = AffineTransform.getTranslateInstance(-dx, -dy);
+		canvasTransform = new AffineTransform(deviceTransform);
+		canvasTransform.scale(pixelScale, pixelScale);
+		offscreen.setTransform(canvasTransform);
+		offscreen.setColor(penColor);
+		defer = true; // nothing is shown while drawing into a layer
+	}
+
+	/**
+	 * Ends the drawing started by
+	 * {@link #beginLayer(BufferedImage, double, double)}: subsequent drawing
+	 * goes to the canvas again.
+	 *
+	 * @throws IllegalStateException if no layer is being drawn
+	 */
+	public static void endLayer()
+	{
+		if (layerImage == null)
+			throw new IllegalStateException("no layer is being drawn");
+		flushCommands();
+		offscreen.dispose();
+
+		offscreen = savedOffscreen;
+		canvasTransform = savedCanvasTransform;
+		deviceTransform = savedDeviceTransform;
+		defer = savedDefer;
+		nearestNeighbour = savedNearestNeighbour;
+		offscreen.setColor(penColor);
+		savedOffscreen = null;
+		if (rasterizer != null)
+			rasterizer.forget(layerImage); // the layer's pixels have changed
+		layerImage = null;
+	}
+
+	/**
+	 * Starts capturing every frame shown by {@code show()} into numbered PNG
+	 * files ({@code frame-000001.png}, ...). Each frame is copied into one of
+	 * {@code buffers} pooled images and encoded by {@code threads} background
+	 * threads, so {@code show()} never waits for the disk: when all buffers are
+	 * still waiting to be encoded, the frame is dropped and counted.
+	 *
+	 * @param directory the directory of the PNG files (created if needed)
+	 * @param buffers   the number of frames that can wait to be encoded
+	 * @param threads   the number of encoding threads
+	 * @return the capture, to query its counters
+	 * @throws IllegalArgumentException if {@code directory} is {@code null} or
+	 *                                  cannot be created, or if {@code buffers}
+	 *                                  or {@code threads} is not positive
+	 */
+	public static FrameCapture startCapture(String directory, int buffers, int threads)
+	{
+		validateNotNull(directory, "directory");
+		if (buffers <= 0)
+			throw new IllegalArgumentException("buffers must be positive");
+		if (threads <= 0)
+			throw new IllegalArgumentException("threads must be positive");
+		stopCapture();
+		capture = new FrameCapture(new File(directory), buffers, threads);
+		return capture;
+	}
+
+	/**
+	 * Stops the capture started by {@link #startCapture(String, int, int)},
+	 * after the frames waiting to be encoded have been written.
+	 */
+	public static void stopCapture()
+	{
+		if (capture == null)
+			return;
+		capture.close();
+		capture = null;
+	}
+
+	/**
+	 * Enables software rasterization. Filled squares and rectangles and image
+	 * blits are then written directly into the pixels of the offscreen image,
+	 * with integer pixel coordinates and without antialiasing, instead of going
+	 * through Java 2D. Other primitives, clipped drawing and layers still use
+	 * Java 2D. Also enabled by {@code -Dstddraw.raster=software}.
+	 * <p>
+	 * Writing into the offscreen image's pixel array makes Java 2D stop
+	 * accelerating that image, and this lasts until the canvas is recreated,
+	 * even after {@link #disableSoftwareRaster()}. Source images are copied on
+	 * first use and stay accelerated. An image modified outside a layer after
+	 * it has been drawn is not seen by the software path.
+	 */
+	public static void enableSoftwareRaster()
+	{
+		flushCommands();
+		softwareRaster = true;
+	}
+
+	/**
+	 * Disables software rasterization (the default).
+	 */
+	public static void disableSoftwareRaster()
+	{
+		flushCommands();
+		softwareRaster = false;
+	}
+
+	// the software rasterizer, if it can draw the next primitive
+	private static Rasterizer raster()
+	{
+		if (!softwareRaster || clipped || layerImage != null)
+			return null;
+		if (rasterizer == null)
+			rasterizer = new Rasterizer(offscreenImage, pixelScale);
+		return rasterizer;
+	}
+
+	// true if the next primitive must be recorded instead of drawn
+	private static boolean recording()
+	{
+		if (!batching || !defer)
+			return false;
+		if (commands.isFull())
+			flushCommands();
+		return true;
+	}
+
+	// draw all recorded primitives
+	private static void flushCommands()
+	{
+		if (commands.isEmpty())
+			return;
+		sharpImages();
+		commands.flush(offscreen, canvasTransform, deviceTransform, raster());
+		offscreen.setColor(penColor);
+	}
+
 
 	/***************************************************************************
 	 * Save drawing to a file.
@@ -1902,16 +2533,18 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static void save(String filename)
 	{
+		flushCommands();
 		validateNotNull(filename, "filename");
 		File file = new File(filename);
 		String suffix = filename.substring(filename.lastIndexOf('.') + 1);
+		BufferedImage image = displayedImage();
 
 		// png files
 		if ("png".equalsIgnoreCase(suffix))
 		{
 			try
 			{
-				ImageIO.write(onscreenImage, suffix, file);
+				ImageIO.write(image, suffix, file);
 			}
 			catch (IOException e)
 			{
@@ -1922,13 +2555,24 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 		// need to change from ARGB to RGB for JPEG
 		// reference:
 		// http://archives.java.sun.com/cgi-bin/wa?A2=ind0404&L=java2d-interest&D=0&P=2727
+		else if ("jpg".equalsIgnoreCase(suffix) && !image.getColorModel().hasAlpha())
+		{
+			try
+			{
+				ImageIO.write(image, suffix, file);
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
 		else if ("jpg".equalsIgnoreCase(suffix))
 		{
-			WritableRaster raster = onscreenImage.getRaster();
+			WritableRaster raster = image.getRaster();
 			WritableRaster newRaster;
-			newRaster = raster.createWritableChild(0, 0, width, height, 0, 0, new int[]
+			newRaster = raster.createWritableChild(0, 0, image.getWidth(), image.getHeight(), 0, 0, new int[]
 			{ 0, 1, 2 });
-			DirectColorModel cm = (DirectColorModel) onscreenImage.getColorModel();
+			DirectColorModel cm = (DirectColorModel) image.getColorModel();
 			DirectColorModel newCM = new DirectColorModel(cm.getPixelSize(), cm.getRedMask(), cm.getGreenMask(),
 					cm.getBlueMask());
 			BufferedImage rgbBuffer = new BufferedImage(newCM, newRaster, false, null);
@@ -1955,7 +2599,7 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	@Override
 	public void actionPerformed(ActionEvent e)
 	{
-		FileDialog chooser = new FileDialog(StdDraw.frame, "Use a .png or .jpg extension", FileDialog.SAVE);
+		FileDialog chooser = new FileDialog(backend.getFrame(), "Use a .png or .jpg extension", FileDialog.SAVE);
 		chooser.setVisible(true);
 		String filename = chooser.getFile();
 		if (filename != null)
@@ -2153,7 +2797,8 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 * This method takes the keycode (corresponding to a physical key) as an
 	 * argument. It can handle action keys (such as F1 and arrow keys) and modifier
 	 * keys (such as shift and control). See {@link KeyEvent} for a description of
-	 * key codes.
+	 * key codes. It never blocks: the key state is a bitset updated atomically
+	 * by the keyboard listeners.
 	 *
 	 * @param keycode the key to check if it is being pressed
 	 * @return {@code true} if {@code keycode} is currently being pressed;
@@ -2161,10 +2806,48 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	 */
 	public static boolean isKeyPressed(int keycode)
 	{
-		synchronized (keyLock)
-		{
-			return keysDown.contains(keycode);
-		}
+		return keysDown.get(keycode);
+	}
+
+	/**
+	 * Returns the queue of timestamped key transitions. Every press (key repeat
+	 * excluded) and every release is added by the keyboard listeners, stamped
+	 * with {@link System#nanoTime()}. The queue is lock-free and must be drained
+	 * by a single thread.
+	 *
+	 * @return the key event queue
+	 */
+	public static KeyEventRing getKeyEvents()
+	{
+		return keyEvents;
+	}
+
+	/**
+	 * Returns the number of times the given key has gone down since the
+	 * program started. Unlike {@link #isKeyPressed(int)}, this never misses
+	 * a key that is pressed and released between two calls: a client that
+	 * remembers the previous count sees the press as soon as the count changes.
+	 * Key repeat while the key is held down is not counted.
+	 *
+	 * @param keycode the key code (only codes below 256 are counted)
+	 * @return the number of presses of {@code keycode}, or 0 if it is not counted
+	 */
+	public static int getKeyPressCount(int keycode)
+	{
+		return keycode >= 0 && keycode < KEY_COUNTED ? keyPresses.get(keycode) : 0;
+	}
+
+	/**
+	 * Returns the number of times the given key has been released since the
+	 * program started.
+	 *
+	 * @param keycode the key code (only codes below 256 are counted)
+	 * @return the number of releases of {@code keycode}, or 0 if it is not counted
+	 * @see #getKeyPressCount(int)
+	 */
+	public static int getKeyReleaseCount(int keycode)
+	{
+		return keycode >= 0 && keycode < KEY_COUNTED ? keyReleases.get(keycode) : 0;
 	}
 
 
@@ -2186,9 +2869,15 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	@Override
 	public void keyPressed(KeyEvent e)
 	{
-		synchronized (keyLock)
+		int keycode = e.getKeyCode();
+		synchronized (keyLock) // only serializes writers (the event queue has a single producer)
 		{
-			keysDown.add(e.getKeyCode());
+			if (keysDown.set(keycode))
+			{
+				if (keycode < KEY_COUNTED)
+					keyPresses.incrementAndGet(keycode);
+				keyEvents.offer(keycode, true, System.nanoTime());
+			}
 		}
 	}
 
@@ -2198,52 +2887,19 @@ public final class StdDraw implements ActionListener, MouseListener, MouseMotion
 	@Override
 	public void keyReleased(KeyEvent e)
 	{
+		int keycode = e.getKeyCode();
 		synchronized (keyLock)
 		{
-			keysDown.remove(e.getKeyCode());
+			if (keysDown.clear(keycode))
+			{
+				if (keycode < KEY_COUNTED)
+					keyReleases.incrementAndGet(keycode);
+				keyEvents.offer(keycode, false, System.nanoTime());
+			}
 		}
 	}
 
 
-	/***************************************************************************
-	 * For improved resolution on Mac Retina displays.
-	 ***************************************************************************/
-
-	private static class RetinaImageIcon extends ImageIcon
-	{
-
-		public RetinaImageIcon(Image image)
-		{
-			super(image);
-		}
-
-		public int getIconWidth()
-		{
-			return super.getIconWidth() / 2;
-		}
-
-		/**
-		 * Gets the height of the icon.
-		 *
-		 * @return the height in pixels of this icon
-		 */
-		public int getIconHeight()
-		{
-			return super.getIconHeight() / 2;
-		}
-
-		public synchronized void paintIcon(Component c, Graphics g, int x, int y)
-		{
-			Graphics2D g2 = (Graphics2D) g.create();
-			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-			g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-			g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-			g2.scale(0.5, 0.5);
-			super.paintIcon(c, g2, x * 2, y * 2);
-			g2.dispose();
-		}
-	}
-
 
 	/**
 	 * Test client.
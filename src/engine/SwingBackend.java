@@ -0,0 +1,151 @@
+package engine;
+
+import java.awt.Component;
+import java.awt.Frame;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Toolkit;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import javax.swing.ImageIcon;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.KeyStroke;
+
+/**
+ * Affichage passif : {@code show()} recopie le tampon d'image dans une icône
+ * que Swing redessine dans une fenêtre.
+ */
+class SwingBackend implements RenderBackend {
+    private JFrame frame; // la fenêtre
+    private JLabel label; // le composant qui affiche l'icône
+    private BufferedImage onscreenImage; // l'image affichée
+    private Graphics2D onscreen; // son contexte graphique
+
+    @Override
+    public void open(BufferedImage offscreen, int width, int height, double pixelScale, StdDraw listener) {
+        onscreenImage = new BufferedImage(offscreen.getWidth(), offscreen.getHeight(), offscreen.getType());
+        onscreen = onscreenImage.createGraphics();
+
+        label = new JLabel(new RetinaImageIcon(onscreenImage, pixelScale));
+        label.addMouseListener(listener);
+        label.addMouseMotionListener(listener);
+
+        frame = new JFrame();
+        frame.setContentPane(label);
+        frame.addKeyListener(listener); // JLabel cannot get keyboard focus
+        initFrame(frame, listener);
+    }
+
+    @Override
+    public long present(BufferedImage offscreen, Shape clip, Rectangle clipBounds, long clipPixels) {
+        if (clip != null) {
+            onscreen.setClip(clip);
+            onscreen.drawImage(offscreen, 0, 0, null);
+            onscreen.setClip(null);
+            label.repaint(clipBounds);
+            return 2 * clipPixels;
+        }
+        onscreen.drawImage(offscreen, 0, 0, null);
+        frame.repaint();
+        return 2L * offscreen.getWidth() * offscreen.getHeight(); // copie, puis dessin de l'icône
+    }
+
+    @Override
+    public BufferedImage getDisplayedImage(BufferedImage offscreen) {
+        return onscreenImage;
+    }
+
+    @Override
+    public boolean isRealtime() {
+        return true;
+    }
+
+    @Override
+    public Frame getFrame() {
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        frame.dispose();
+        onscreen.dispose();
+    }
+
+    /**
+     * Configure et affiche une fenêtre StdDraw
+     *
+     * @param frame    la fenêtre
+     * @param listener StdDraw, qui reçoit les commandes du menu
+     */
+    static void initFrame(JFrame frame, StdDraw listener) {
+        frame.setFocusTraversalKeysEnabled(false); // allow VK_TAB with isKeyPressed()
+        frame.setResizable(false);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // closes all windows
+        frame.setTitle("Standard Draw");
+        frame.setJMenuBar(createMenuBar(listener));
+        frame.pack();
+        frame.requestFocusInWindow();
+        frame.setVisible(true);
+    }
+
+    // create the menu bar
+    private static JMenuBar createMenuBar(StdDraw listener) {
+        JMenuBar menuBar = new JMenuBar();
+        JMenu menu = new JMenu("File");
+        menuBar.add(menu);
+        JMenuItem menuItem1 = new JMenuItem(" Save...   ");
+        menuItem1.addActionListener(listener);
+        // Java 10+: replace getMenuShortcutKeyMask() with getMenuShortcutKeyMaskEx()
+        menuItem1.setAccelerator(
+                KeyStroke.getKeyStroke(KeyEvent.VK_S, Toolkit.getDefaultToolkit().getMenuShortcutKeyMask()));
+        menu.add(menuItem1);
+        return menuBar;
+    }
+
+    /**
+     * Icône affichant une image de {@code pixelScale} pixels par pixel
+     * d'écran (écrans Retina/HiDPI)
+     */
+    private static class RetinaImageIcon extends ImageIcon {
+        private final double pixelScale; // pixels de l'image par pixel de l'icône
+
+        RetinaImageIcon(Image image, double pixelScale) {
+            super(image);
+            this.pixelScale = pixelScale;
+        }
+
+        @Override
+        public int getIconWidth() {
+            return (int) Math.round(super.getIconWidth() / pixelScale);
+        }
+
+        @Override
+        public int getIconHeight() {
+            return (int) Math.round(super.getIconHeight() / pixelScale);
+        }
+
+        @Override
+        public synchronized void paintIcon(Component c, Graphics g, int x, int y) {
+            if (pixelScale == 1.0) {
+                // one image pixel per screen pixel: plain copy, no resampling
+                super.paintIcon(c, g, x, y);
+                return;
+            }
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.scale(1.0 / pixelScale, 1.0 / pixelScale);
+            super.paintIcon(c, g2, (int) Math.round(x * pixelScale), (int) Math.round(y * pixelScale));
+            g2.dispose();
+        }
+    }
+}
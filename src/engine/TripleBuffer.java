@@ -0,0 +1,98 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Échange sans verrou entre un producteur et un consommateur par triple
+ * tampon. Le producteur remplit toujours son propre tampon puis le publie ;
+ * le consommateur prend toujours le dernier tampon publié. Aucun des deux
+ * n'attend l'autre : si le producteur publie plus vite que le consommateur
+ * ne lit, les tampons intermédiaires sont simplement remplacés.
+ * <p>
+ * Un seul thread doit appeler {@link #getBack()} et {@link #publish()}, et un
+ * seul thread {@link #acquire()}.
+ *
+ * @param <T> type des tampons échangés
+ */
+public final class TripleBuffer<T> {
+    private static final int INDEX = 3; // bits de l'index du tampon du milieu
+    private static final int FRESH = 4; // le tampon du milieu n'a pas encore été lu
+
+    private final Object[] slots; // les trois tampons
+    private final AtomicInteger middle; // index du tampon échangé (| FRESH s'il est nouveau)
+    private int back; // tampon en cours de remplissage (producteur)
+    private int front; // tampon en cours de lecture (consommateur)
+    private final AtomicLong published = new AtomicLong(); // tampons publiés
+    private final AtomicLong dropped = new AtomicLong(); // tampons remplacés avant d'être lus
+
+    /**
+     * Crée un échange entre trois tampons préalloués
+     *
+     * @param first  premier tampon
+     * @param second deuxième tampon
+     * @param third  troisième tampon
+     */
+    public TripleBuffer(T first, T second, T third) {
+        slots = new Object[] { first, second, third };
+        front = 0;
+        middle = new AtomicInteger(1);
+        back = 2;
+    }
+
+    /**
+     * Retourne le tampon que le producteur peut remplir
+     *
+     * @return le tampon du producteur
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) slots[back];
+    }
+
+    /**
+     * Publie le tampon du producteur, qui reçoit en échange un tampon libre
+     */
+    public void publish() {
+        int previous = middle.getAndSet(back | FRESH);
+        if ((previous & FRESH) != 0) {
+            dropped.incrementAndGet();
+        }
+        back = previous & INDEX;
+        published.incrementAndGet();
+    }
+
+    /**
+     * Prend le dernier tampon publié, s'il n'a pas déjà été pris. Le tampon
+     * retourné reste valide jusqu'au prochain appel.
+     *
+     * @return le dernier tampon publié, ou null si rien n'a été publié depuis
+     *         le dernier appel
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) == 0) {
+            return null;
+        }
+        front = middle.getAndSet(front) & INDEX;
+        return (T) slots[front];
+    }
+
+    /**
+     * Retourne le nombre de tampons publiés
+     *
+     * @return nombre de publications
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Retourne le nombre de tampons remplacés avant d'avoir été lus
+     *
+     * @return nombre de tampons perdus
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
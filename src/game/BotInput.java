@@ -0,0 +1,73 @@
+package game;
+
+import game.actors.Enemy;
+import game.actors.EnemyBullet;
+import game.actors.Player;
+
+/**
+ * Pilote automatique pour les simulations sans fenêtre : il se place sous
+ * l'ennemi le plus bas, s'écarte des projectiles ennemis qui arrivent sur
+ * lui et tire à intervalles réguliers. Ses décisions ne dépendent que de
+ * l'état du jeu : avec la même graine, une partie pilotée est reproductible.
+ */
+public final class BotInput implements InputSource {
+    private static final int FIRE_PERIOD = 6; // mises à jour entre deux tirs
+    private static final double DEAD_ZONE = 0.01; // écart toléré avec la cible
+    private static final double DANGER_HEIGHT = 0.3; // hauteur au-dessus du joueur où l'on esquive
+
+    private final Game game; // jeu piloté
+    private int held; // commandes maintenues
+    private long ticks; // mises à jour pilotées
+
+    /**
+     * Crée un pilote pour un jeu
+     *
+     * @param game le jeu piloté
+     */
+    public BotInput(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public void poll(InputState state) {
+        int previous = held;
+        held = 0;
+        int pressed = ticks++ % FIRE_PERIOD == 0 ? InputState.FIRE : 0; // démarre aussi la partie
+
+        Player player = game.player;
+        double x = player.getX();
+        double target = target(player);
+        if (target < x - DEAD_ZONE) {
+            held |= InputState.LEFT;
+        } else if (target > x + DEAD_ZONE) {
+            held |= InputState.RIGHT;
+        }
+        state.set(held, pressed | held & ~previous, previous & ~held);
+    }
+
+    /**
+     * Choisit la position x visée : à l'écart du projectile le plus menaçant,
+     * sinon sous l'ennemi le plus bas
+     */
+    private double target(Player player) {
+        double x = player.getX();
+        double width = player.getLength();
+        for (EnemyBullet bullet : game.getEnemyBullets()) {
+            double height = bullet.getY() - player.getY();
+            if (height > 0 && height < DANGER_HEIGHT && Math.abs(bullet.getX() - x) < width) {
+                double away = bullet.getX() < x ? x + width : x - width;
+                if (away < width / 2 || away > 1 - width / 2) {
+                    away = 2 * x - away; // contre un bord : on passe de l'autre côté
+                }
+                return away;
+            }
+        }
+        Enemy lowest = null;
+        for (Enemy enemy : game.getEnemies()) {
+            if (enemy.isActive() && (lowest == null || enemy.getY() < lowest.getY())) {
+                lowest = enemy;
+            }
+        }
+        return lowest != null ? lowest.getX() : x;
+    }
+}
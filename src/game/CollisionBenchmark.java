@@ -0,0 +1,121 @@
+package game;
+
+import game.actors.Bee;
+import game.actors.Enemy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Banc d'essai des collisions projectiles / ennemis : l'ancienne double
+ * boucle (chaque projectile contre chaque ennemi, distance avec racine
+ * carrée) contre la grille de hachage spatial reconstruite à chaque mise à
+ * jour. Les ennemis sont répartis sur tout l'écran ; leur taille diminue
+ * quand leur nombre augmente pour couvrir la même surface que les 44
+ * ennemis d'un niveau (sinon presque chaque projectile toucherait l'un des
+ * premiers ennemis de la liste). Les deux méthodes doivent trouver les
+ * mêmes ennemis.
+ * <p>
+ * Utilisation : {@code java game.CollisionBenchmark [projectiles] [ennemis,...]}
+ */
+public final class CollisionBenchmark {
+    private static final double ENEMY_SIZE = 0.06; // taille des ennemis des niveaux
+    private static final int LEVEL_ENEMIES = 44; // ennemis d'un niveau
+    private static final long MIN_NANOS = 200_000_000L; // durée du préchauffage et durée minimale d'une mesure
+
+    /**
+     * Classe utilitaire : pas d'instance
+     */
+    private CollisionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int bulletCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String enemyCounts = args.length > 1 ? args[1] : "44,100,1000,10000";
+
+        SplittableRandom random = new SplittableRandom(42);
+        double[] bx = new double[bulletCount];
+        double[] by = new double[bulletCount];
+        for (int i = 0; i < bulletCount; i++) {
+            bx[i] = random.nextDouble();
+            by[i] = random.nextDouble();
+        }
+
+        System.out.printf("%8s %12s %12s %10s %10s%n", "ennemis", "boucle (µs)", "grille (µs)", "gain",
+                "candidats");
+        for (String item : enemyCounts.split(",")) {
+            int n = Integer.parseInt(item.trim());
+            double size = ENEMY_SIZE * Math.sqrt((double) LEVEL_ENEMIES / n);
+            List<Enemy> enemies = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                enemies.add(new Bee(random.nextDouble(), random.nextDouble(), size, 100, 0.001, random));
+            }
+            SpatialHash grid = new SpatialHash();
+
+            // Les deux méthodes doivent désigner le même ennemi pour chaque projectile
+            Enemy[] expected = new Enemy[bulletCount];
+            Enemy[] actual = new Enemy[bulletCount];
+            nestedLoop(enemies, bx, by, expected);
+            spatialHash(grid, enemies, bx, by, actual);
+            for (int i = 0; i < bulletCount; i++) {
+                if (expected[i] != actual[i]) {
+                    throw new IllegalStateException("collision mismatch for bullet " + i + " with " + n + " enemies");
+                }
+            }
+
+            SpatialHash measured = new SpatialHash(); // statistiques des seules mesures
+            double loop = measure(() -> nestedLoop(enemies, bx, by, expected));
+            double hashed = measure(() -> spatialHash(measured, enemies, bx, by, actual));
+            System.out.printf("%8d %12.1f %12.1f %9.1fx %10.1f%n", n, loop / 1e3, hashed / 1e3, loop / hashed,
+                    measured.getCandidatesPerQuery());
+        }
+    }
+
+    /**
+     * Ancienne méthode : chaque projectile contre chaque ennemi
+     */
+    private static void nestedLoop(List<Enemy> enemies, double[] bx, double[] by, Enemy[] hits) {
+        for (int b = 0; b < bx.length; b++) {
+            hits[b] = null;
+            for (Enemy enemy : enemies) {
+                if (!enemy.isActive()) continue;
+                double distance = Math.sqrt(Math.pow(enemy.getX() - bx[b], 2) + Math.pow(enemy.getY() - by[b], 2));
+                if (distance < enemy.getLength() / 2) {
+                    hits[b] = enemy;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Nouvelle méthode : grille reconstruite, puis une requête par projectile
+     */
+    private static void spatialHash(SpatialHash grid, List<Enemy> enemies, double[] bx, double[] by, Enemy[] hits) {
+        grid.build(enemies);
+        for (int b = 0; b < bx.length; b++) {
+            hits[b] = grid.firstHit(bx[b], by[b]);
+        }
+    }
+
+    /**
+     * Répète une mise à jour (après préchauffage) et retourne sa durée moyenne
+     *
+     * @return durée moyenne en nanosecondes
+     */
+    private static double measure(Runnable tick) {
+        long warmup = System.nanoTime();
+        while (System.nanoTime() - warmup < MIN_NANOS) {
+            tick.run();
+        }
+        long start = System.nanoTime();
+        long runs = 0;
+        long elapsed;
+        do {
+            tick.run();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_NANOS);
+        return (double) elapsed / runs;
+    }
+}
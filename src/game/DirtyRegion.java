@@ -0,0 +1,204 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Suivi des zones de l'écran qui ont changé depuis l'image précédente.
+ * À chaque image, le jeu déclare la boîte englobante (et une étiquette
+ * d'apparence) de tout ce qu'il dessine. Les boîtes identiques d'une image
+ * à l'autre sont ignorées ; les autres, anciennes et nouvelles positions,
+ * forment la région à effacer et à redessiner.
+ */
+class DirtyRegion {
+    private static final double MARGIN = 0.004; // marge pour l'anticrénelage (quelques pixels)
+    private static final int INDEX_BITS = 20; // bits réservés à l'index dans les clés de tri
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private double[] previous = new double[5 * 64]; // boîtes de l'image précédente (x, y, w, h, étiquette)
+    private double[] current = new double[5 * 64]; // boîtes de l'image courante
+    private long[] previousKeys = new long[64]; // clés de tri des boîtes précédentes
+    private long[] currentKeys = new long[64]; // clés de tri des boîtes courantes
+    private int previousCount; // nombre de boîtes précédentes
+    private int currentCount; // nombre de boîtes courantes
+    private boolean full; // tout l'écran doit être redessiné
+
+    private double[] x = new double[64]; // centres x des zones à redessiner
+    private double[] y = new double[64]; // centres y des zones à redessiner
+    private double[] halfWidth = new double[64]; // demi-largeurs des zones
+    private double[] halfHeight = new double[64]; // demi-hauteurs des zones
+    private int size; // nombre de zones à redessiner
+
+    /**
+     * Crée une région dont la première image est entièrement redessinée
+     */
+    DirtyRegion() {
+        full = true;
+    }
+
+    /**
+     * Force le redessin complet de la prochaine image
+     */
+    void invalidate() {
+        full = true;
+    }
+
+    /**
+     * Déclare un élément dessiné dans l'image courante
+     *
+     * @param cx  centre x
+     * @param cy  centre y
+     * @param hw  demi-largeur
+     * @param hh  demi-hauteur
+     * @param tag étiquette d'apparence : un changement d'étiquette rend la boîte sale
+     */
+    void mark(double cx, double cy, double hw, double hh, long tag) {
+        if (currentCount == currentKeys.length) {
+            currentKeys = Arrays.copyOf(currentKeys, 2 * currentCount);
+            current = Arrays.copyOf(current, 10 * currentCount);
+        }
+        int i = currentCount++;
+        int j = 5 * i;
+        current[j] = cx;
+        current[j + 1] = cy;
+        current[j + 2] = hw;
+        current[j + 3] = hh;
+        current[j + 4] = Double.longBitsToDouble(tag);
+
+        long hash = 17;
+        for (int k = j; k < j + 5; k++) {
+            hash = hash * 0x9E3779B97F4A7C15L + Double.doubleToRawLongBits(current[k]);
+        }
+        hash ^= hash >>> 29;
+        currentKeys[i] = (hash & ~INDEX_MASK) | i;
+    }
+
+    /**
+     * Calcule les zones à redessiner à partir des boîtes déclarées,
+     * puis prépare l'image suivante
+     */
+    void endFrame() {
+        size = 0;
+        if (!full) {
+            Arrays.sort(currentKeys, 0, currentCount);
+            int p = 0;
+            int c = 0;
+            while (p < previousCount || c < currentCount) {
+                if (c == currentCount) {
+                    addBox(previous, index(previousKeys[p++]));
+                } else if (p == previousCount) {
+                    addBox(current, index(currentKeys[c++]));
+                } else if (hash(previousKeys[p]) < hash(currentKeys[c])) {
+                    addBox(previous, index(previousKeys[p++]));
+                } else if (hash(previousKeys[p]) > hash(currentKeys[c])) {
+                    addBox(current, index(currentKeys[c++]));
+                } else if (sameBox(index(previousKeys[p]), index(currentKeys[c]))) {
+                    p++; // élément immobile et inchangé
+                    c++;
+                } else {
+                    addBox(previous, index(previousKeys[p++]));
+                    addBox(current, index(currentKeys[c++]));
+                }
+            }
+        } else {
+            Arrays.sort(currentKeys, 0, currentCount);
+        }
+
+        // L'image courante devient l'image précédente
+        double[] boxes = previous;
+        previous = current;
+        current = boxes;
+        long[] keys = previousKeys;
+        previousKeys = currentKeys;
+        currentKeys = keys;
+        previousCount = currentCount;
+        currentCount = 0;
+    }
+
+    /**
+     * Indique si l'image doit être entièrement redessinée, et consomme cette demande
+     *
+     * @return true si tout l'écran est à redessiner
+     */
+    boolean takeFull() {
+        boolean result = full;
+        full = false;
+        return result;
+    }
+
+    private static int index(long key) {
+        return (int) (key & INDEX_MASK);
+    }
+
+    private static long hash(long key) {
+        return key & ~INDEX_MASK;
+    }
+
+    private boolean sameBox(int p, int c) {
+        for (int k = 0; k < 5; k++) {
+            if (Double.doubleToRawLongBits(previous[5 * p + k]) != Double.doubleToRawLongBits(current[5 * c + k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addBox(double[] boxes, int i) {
+        if (size == x.length) {
+            x = Arrays.copyOf(x, 2 * size);
+            y = Arrays.copyOf(y, 2 * size);
+            halfWidth = Arrays.copyOf(halfWidth, 2 * size);
+            halfHeight = Arrays.copyOf(halfHeight, 2 * size);
+        }
+        int j = 5 * i;
+        x[size] = boxes[j];
+        y[size] = boxes[j + 1];
+        halfWidth[size] = boxes[j + 2] + MARGIN;
+        halfHeight[size] = boxes[j + 3] + MARGIN;
+        size++;
+    }
+
+    /**
+     * Retourne le nombre de zones à redessiner
+     *
+     * @return nombre de zones
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Retourne les centres x des zones à redessiner
+     *
+     * @return tableau (seuls les {@link #size()} premiers éléments sont valides)
+     */
+    double[] getX() {
+        return x;
+    }
+
+    /**
+     * Retourne les centres y des zones à redessiner
+     *
+     * @return tableau (seuls les {@link #size()} premiers éléments sont valides)
+     */
+    double[] getY() {
+        return y;
+    }
+
+    /**
+     * Retourne les demi-largeurs des zones à redessiner
+     *
+     * @return tableau (seuls les {@link #size()} premiers éléments sont valides)
+     */
+    double[] getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * Retourne les demi-hauteurs des zones à redessiner
+     *
+     * @return tableau (seuls les {@link #size()} premiers éléments sont valides)
+     */
+    double[] getHalfHeight() {
+        return halfHeight;
+    }
+}
@@ -0,0 +1,319 @@
+package game;
+
+import engine.ParticleSystem;
+import game.actors.Bullet;
+import game.actors.Enemy;
+import game.actors.EnemyBullet;
+import game.actors.Player;
+import game.actors.Sprite;
+import java.util.Arrays;
+
+/**
+ * Copie compacte de tout ce qui est affiché à une image : état du jeu,
+ * valeurs de l'interface et positions du joueur, des ennemis, des
+ * projectiles et des particules. La simulation remplit une copie puis la
+ * publie ; le rendu ne lit que des copies publiées, qui ne sont plus
+ * modifiées tant qu'il les utilise. Les tableaux sont réutilisés d'une
+ * image à l'autre.
+ * <p>
+ * Chaque position est copiée deux fois, au début et à la fin de la mise à
+ * jour : le rendu peut ainsi dessiner les acteurs entre deux mises à jour
+ * (interpolation), à sa propre cadence.
+ */
+final class FrameSnapshot {
+    private Game.GameState state; // état du jeu
+    private int score; // score du joueur
+    private int highScore; // meilleur score
+    private int lives; // vies restantes
+    private int level; // numéro du niveau
+    private double scroll; // distance parcourue par le fond étoilé
+    private double previousScroll; // distance au début de la mise à jour
+    private long tickTime; // instant (System.nanoTime) de la fin de la mise à jour
+
+    private double playerX; // position x du joueur
+    private double playerY; // position y du joueur
+    private double playerX0; // position x du joueur au début de la mise à jour
+    private double playerY0; // position y du joueur au début de la mise à jour
+    private double playerLength; // taille du joueur
+    private Sprite playerSprite; // sprite du joueur
+
+    private int enemyCount; // nombre d'ennemis
+    private double[] enemyX = new double[64]; // positions x des ennemis
+    private double[] enemyY = new double[64]; // positions y des ennemis
+    private double[] enemyX0 = new double[64]; // positions x au début de la mise à jour
+    private double[] enemyY0 = new double[64]; // positions y au début de la mise à jour
+    private double[] enemyLength = new double[64]; // tailles des ennemis
+    private Sprite[] enemySprite = new Sprite[64]; // sprites des ennemis
+    private int[] enemyRegion = new int[64]; // régions des sprites (image d'animation et angle)
+
+    private int bulletCount; // nombre de projectiles du joueur
+    private double[] bullets = new double[6 * 16]; // projectiles du joueur (x0, y0, x, y, w, h)
+    private int enemyBulletCount; // nombre de projectiles ennemis
+    private double[] enemyBullets = new double[6 * 16]; // projectiles ennemis (x0, y0, x, y, w, h)
+
+    private ParticleSystem particles; // copie des particules (créée à la première image)
+    private final double[] particleBounds = new double[4]; // boîte englobante des particules
+
+    /**
+     * Commence une nouvelle copie
+     *
+     * @param state     état du jeu
+     * @param score     score du joueur
+     * @param highScore meilleur score
+     * @param lives     vies restantes
+     * @param level     numéro du niveau
+     * @param tickTime  instant (System.nanoTime) de la fin de la mise à jour
+     */
+    void begin(Game.GameState state, int score, int highScore, int lives, int level, long tickTime) {
+        this.state = state;
+        this.tickTime = tickTime;
+        this.score = score;
+        this.highScore = highScore;
+        this.lives = lives;
+        this.level = level;
+        Arrays.fill(enemySprite, 0, enemyCount, null);
+        enemyCount = 0;
+        bulletCount = 0;
+        enemyBulletCount = 0;
+    }
+
+    /**
+     * Copie la position du joueur
+     *
+     * @param player le joueur
+     */
+    void setPlayer(Player player) {
+        playerX = player.getX();
+        playerY = player.getY();
+        playerX0 = player.getPreviousX();
+        playerY0 = player.getPreviousY();
+        playerLength = player.getLength();
+        playerSprite = player.getSprite();
+    }
+
+    /**
+     * Copie la position du fond étoilé
+     *
+     * @param previousScroll distance parcourue au début de la mise à jour
+     * @param scroll         distance parcourue à la fin de la mise à jour
+     */
+    void setScroll(double previousScroll, double scroll) {
+        this.previousScroll = previousScroll;
+        this.scroll = scroll;
+    }
+
+    /**
+     * Copie les particules vivantes
+     *
+     * @param source le système de particules du jeu
+     */
+    void setParticles(ParticleSystem source) {
+        if (particles == null || particles.getCapacity() != source.getCapacity()) {
+            particles = new ParticleSystem(source.getCapacity(), source.getPalette());
+        }
+        source.copyTo(particles);
+    }
+
+    /**
+     * Ajoute un ennemi (ignoré s'il est inactif)
+     *
+     * @param enemy l'ennemi
+     */
+    void addEnemy(Enemy enemy) {
+        if (!enemy.isActive() || enemy.getSprite() == null) {
+            return;
+        }
+        if (enemyCount == enemyX.length) {
+            enemyX = Arrays.copyOf(enemyX, 2 * enemyCount);
+            enemyY = Arrays.copyOf(enemyY, 2 * enemyCount);
+            enemyX0 = Arrays.copyOf(enemyX0, 2 * enemyCount);
+            enemyY0 = Arrays.copyOf(enemyY0, 2 * enemyCount);
+            enemyLength = Arrays.copyOf(enemyLength, 2 * enemyCount);
+            enemySprite = Arrays.copyOf(enemySprite, 2 * enemyCount);
+            enemyRegion = Arrays.copyOf(enemyRegion, 2 * enemyCount);
+        }
+        enemyX[enemyCount] = enemy.getX();
+        enemyY[enemyCount] = enemy.getY();
+        enemyX0[enemyCount] = enemy.getPreviousX();
+        enemyY0[enemyCount] = enemy.getPreviousY();
+        enemyLength[enemyCount] = enemy.getLength();
+        enemySprite[enemyCount] = enemy.getSprite();
+        enemyRegion[enemyCount] = enemy.getSpriteRegion();
+        enemyCount++;
+    }
+
+    /**
+     * Ajoute un projectile du joueur (ignoré s'il est inactif)
+     *
+     * @param bullet le projectile
+     */
+    void addBullet(Bullet bullet) {
+        if (bullet.isActive()) {
+            bullets = put(bullets, bulletCount++, bullet.getPreviousX(), bullet.getPreviousY(), bullet.getX(),
+                    bullet.getY(), bullet.getWidth(), bullet.getHeight());
+        }
+    }
+
+    /**
+     * Ajoute un projectile ennemi (ignoré s'il est inactif)
+     *
+     * @param bullet le projectile
+     */
+    void addEnemyBullet(EnemyBullet bullet) {
+        if (bullet.isActive()) {
+            enemyBullets = put(enemyBullets, enemyBulletCount++, bullet.getPreviousX(), bullet.getPreviousY(),
+                    bullet.getX(), bullet.getY(), bullet.getWidth(), bullet.getHeight());
+        }
+    }
+
+    private static double[] put(double[] boxes, int i, double x0, double y0, double x, double y, double w,
+            double h) {
+        if (6 * i == boxes.length) {
+            boxes = Arrays.copyOf(boxes, 2 * boxes.length);
+        }
+        boxes[6 * i] = x0;
+        boxes[6 * i + 1] = y0;
+        boxes[6 * i + 2] = x;
+        boxes[6 * i + 3] = y;
+        boxes[6 * i + 4] = w;
+        boxes[6 * i + 5] = h;
+        return boxes;
+    }
+
+    /**
+     * Calcule la fraction de la mise à jour suivante écoulée à un instant
+     * donné, pour dessiner les acteurs entre deux mises à jour. Seuls les
+     * acteurs d'une partie en cours bougent : dans les autres états, la
+     * position de fin est toujours utilisée.
+     *
+     * @param now       instant du rendu (System.nanoTime)
+     * @param tickNanos durée d'une mise à jour
+     * @return fraction entre 0 (position de début) et 1 (position de fin)
+     */
+    double interpolation(long now, long tickNanos) {
+        if (state != Game.GameState.PLAYING) {
+            return 1;
+        }
+        return Math.max(0, Math.min(1, (double) (now - tickTime) / tickNanos));
+    }
+
+    private static double lerp(double from, double to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+
+    /**
+     * Dessine les ennemis, le joueur et les projectiles
+     *
+     * @param alpha fraction de la mise à jour écoulée (voir {@link #interpolation(long, long)})
+     */
+    void drawActors(double alpha) {
+        for (int i = 0; i < enemyCount; i++) {
+            enemySprite[i].draw(lerp(enemyX0[i], enemyX[i], alpha), lerp(enemyY0[i], enemyY[i], alpha),
+                    enemyLength[i], enemyRegion[i]);
+        }
+        playerSprite.draw(lerp(playerX0, playerX, alpha), lerp(playerY0, playerY, alpha), playerLength);
+        for (int i = 0; i < 6 * bulletCount; i += 6) {
+            Bullet.draw(lerp(bullets[i], bullets[i + 2], alpha), lerp(bullets[i + 1], bullets[i + 3], alpha),
+                    bullets[i + 4], bullets[i + 5]);
+        }
+        for (int i = 0; i < 6 * enemyBulletCount; i += 6) {
+            EnemyBullet.draw(lerp(enemyBullets[i], enemyBullets[i + 2], alpha),
+                    lerp(enemyBullets[i + 1], enemyBullets[i + 3], alpha), enemyBullets[i + 4], enemyBullets[i + 5]);
+        }
+        if (particles != null) {
+            particles.draw();
+        }
+    }
+
+    /**
+     * Déclare la boîte englobante de chaque élément dessiné
+     *
+     * @param region la région à redessiner
+     * @param alpha  fraction de la mise à jour écoulée (voir {@link #interpolation(long, long)})
+     */
+    void markActors(DirtyRegion region, double alpha) {
+        for (int i = 0; i < enemyCount; i++) {
+            double half = enemySprite[i].getRotatedSize(enemyLength[i]) / 2; // les sprites tournés débordent
+            long tag = (long) System.identityHashCode(enemySprite[i]) << 16 | enemyRegion[i];
+            region.mark(lerp(enemyX0[i], enemyX[i], alpha), lerp(enemyY0[i], enemyY[i], alpha), half, half, tag);
+        }
+        double half = playerLength / 2;
+        region.mark(lerp(playerX0, playerX, alpha), lerp(playerY0, playerY, alpha), half, half, 0);
+        for (int i = 0; i < 6 * bulletCount; i += 6) {
+            region.mark(lerp(bullets[i], bullets[i + 2], alpha), lerp(bullets[i + 1], bullets[i + 3], alpha),
+                    bullets[i + 4], bullets[i + 5], 1);
+        }
+        for (int i = 0; i < 6 * enemyBulletCount; i += 6) {
+            region.mark(lerp(enemyBullets[i], enemyBullets[i + 2], alpha),
+                    lerp(enemyBullets[i + 1], enemyBullets[i + 3], alpha), enemyBullets[i + 4], enemyBullets[i + 5], 2);
+        }
+        // Une seule boîte pour toutes les particules, sale à chaque mise à jour
+        if (particles != null && particles.getBounds(particleBounds)) {
+            region.mark(particleBounds[0], particleBounds[1], particleBounds[2], particleBounds[3],
+                    particles.getVersion());
+        }
+    }
+
+    /**
+     * Retourne une clé qui change dès qu'une des valeurs affichées
+     * (score, vies, niveau, high score) change
+     *
+     * @return clé des valeurs affichées
+     */
+    long hudKey() {
+        long key = score;
+        key = key * 31 + lives;
+        key = key * 31 + level;
+        key = key * 31 + highScore;
+        return key;
+    }
+
+    /**
+     * Retourne l'état du jeu
+     * @return état
+     */
+    Game.GameState getState() {
+        return state;
+    }
+
+    /**
+     * Retourne le score
+     * @return score
+     */
+    int getScore() {
+        return score;
+    }
+
+    /**
+     * Retourne le meilleur score
+     * @return high score
+     */
+    int getHighScore() {
+        return highScore;
+    }
+
+    /**
+     * Retourne les vies restantes
+     * @return vies
+     */
+    int getLives() {
+        return lives;
+    }
+
+    /**
+     * Retourne le numéro du niveau
+     * @return niveau
+     */
+    int getLevel() {
+        return level;
+    }
+
+    /**
+     * Retourne la distance parcourue par le fond étoilé
+     * @param alpha fraction de la mise à jour écoulée
+     * @return distance
+     */
+    double getScroll(double alpha) {
+        return lerp(previousScroll, scroll, alpha);
+    }
+}
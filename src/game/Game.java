@@ -1,6 +1,11 @@
 package game;
 
+import engine.FrameCapture;
+import engine.FramePacer;
+import engine.FrameTimeHistogram;
+import engine.ParticleSystem;
 import engine.StdDraw;
+import engine.TripleBuffer;
 import game.actors.Player;
 import game.actors.Bullet;
 import game.actors.EnemyBullet;
@@ -8,9 +13,16 @@ import game.actors.Enemy;
 import game.actors.Bee;
 import game.actors.Butterfly;
 import game.actors.Moth;
+import game.actors.SpriteAtlas;
+import game.actors.SpriteRegistry;
+import java.awt.Color;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.awt.Color;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Classe du jeu principal.
@@ -18,7 +30,7 @@ import java.awt.Color;
  */
 public class Game {
     // États du jeu
-    private enum GameState {
+    public enum GameState {
         START,
         PLAYING,
         PAUSED,
@@ -27,6 +39,16 @@ public class Game {
         VICTORY
     }
     
+    // Couleurs des explosions, de la plus claire à la plus sombre
+    private static final Color[] EXPLOSION_COLORS = {
+        Color.WHITE, Color.YELLOW, Color.ORANGE, Color.RED
+    };
+    private static final int MAX_PARTICLES = 4096; // particules vivantes au maximum
+    private static final int EXPLOSION_PARTICLES = 48; // particules par ennemi détruit
+    private static final double DEFAULT_TICK_RATE = 1000.0 / 30; // mises à jour par seconde (une toutes les 30 ms)
+    private static final double DEFAULT_RENDER_RATE = 60; // images par seconde
+    private static final int MAX_CATCH_UP = 5; // mises à jour au plus entre deux passages dans la boucle
+
     public Player player; // Joueur
     private List<Bullet> bullets; // Liste des projectiles du joueur
     private List<EnemyBullet> enemyBullets; // Liste des projectiles ennemis
@@ -37,21 +59,94 @@ public class Game {
     private Level currentLevel; // Niveau actuel
     private int currentLevelNumber; // Numéro du niveau actuel
     private int transitionTimer; // Timer pour les transitions
+    private final Renderer renderer; // dessin du jeu à partir des copies publiées
+    private final TripleBuffer<FrameSnapshot> frames; // copies échangées avec le rendu
+    private final boolean threadedRendering; // rendu sur un thread dédié
+    private boolean realtime; // un écran affiche les images (sinon horloge virtuelle, sans attente)
+    private volatile boolean running; // le thread de rendu doit continuer
+    private Thread renderThread; // thread de rendu (mode threadedRendering)
+    private final FrameTimeHistogram updateTimes; // durées des mises à jour
+    private final FrameTimeHistogram renderTimes; // durées des rendus
+    private final FrameTimeHistogram inputLatency; // délais entre touche et mise à jour
+    private FrameCapture capture; // enregistrement des images en PNG (mode galaga.capture)
+    private final ParticleSystem particles; // débris des explosions
+    private final long seed; // graine de la simulation (galaga.seed)
+    private final SplittableRandom random; // tirages de la simulation, partagés par les ennemis
+    private final SplittableRandom effects; // tirages des effets visuels
+    private double scrollDistance; // distance parcourue par le fond étoilé
+    private double previousScroll; // distance au début de la mise à jour
+    private final long tickNanos; // durée simulée d'une mise à jour (galaga.tickRate)
+    private final long renderNanos; // intervalle entre deux images (galaga.renderRate)
+    private FrameSnapshot shownFrame; // dernière copie acquise par le rendu
+    private long skippedTicks; // mises à jour abandonnées pour ne pas accumuler de retard
+    private final FramePacer loopPacer; // attentes de la boucle principale, cadence des mises à jour
+    private final FramePacer renderPacer; // cadence des images
+    private InputSource input; // source des commandes (clavier, créé à l'initialisation)
+    private final InputState inputState; // commandes de la mise à jour en cours
+    private boolean quitRequested; // Échap a été enfoncée
+    private final boolean simulated; // partie sans fenêtre : ni fichier de meilleur score, ni messages
+    private int kills; // ennemis détruits par les tirs du joueur
+    private final SpatialHash enemyGrid; // grille des ennemis, reconstruite à chaque mise à jour
+    private InputRecorder recorder; // enregistrement des commandes (mode galaga.record)
+    private final Set<String> levelFiles; // fichiers de niveau chargés depuis le début
 
     /**
-     * Créé un jeu avec tous les éléments qui le composent
+     * Créé un jeu avec tous les éléments qui le composent. La graine est lue
+     * dans la propriété galaga.seed, ou tirée au hasard.
      */
     public Game() {
+        this(seedProperty());
+    }
+
+    /**
+     * Créé un jeu dont tous les tirages aléatoires découlent d'une graine :
+     * la même graine et les mêmes commandes donnent exactement la même partie
+     *
+     * @param seed graine de la simulation
+     */
+    public Game(long seed) {
+        this(seed, false);
+    }
+
+    /**
+     * Créé un jeu à partir d'une graine. Une partie simulée (pilotée sans
+     * fenêtre, souvent en parallèle avec d'autres) ne lit ni n'écrit le
+     * fichier du meilleur score et n'affiche aucun message : elle ne partage
+     * rien avec les autres parties.
+     *
+     * @param seed      graine de la simulation
+     * @param simulated true pour une partie simulée
+     */
+    public Game(long seed, boolean simulated) {
+        this.simulated = simulated;
         player = new Player(0.5, 0.1, 0.05);
         player.setGame(this); // Définir la référence au jeu
         bullets = new ArrayList<>();
         enemyBullets = new ArrayList<>();
         enemies = new ArrayList<>();
         score = 0;
-        highScore = loadHighScore();
+        highScore = simulated ? 0 : loadHighScore();
         state = GameState.START;
         currentLevelNumber = 1;
         transitionTimer = 0;
+        renderer = new Renderer(Boolean.getBoolean("galaga.dirtyRects"));
+        frames = new TripleBuffer<>(new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot());
+        threadedRendering = Boolean.getBoolean("galaga.renderThread");
+        tickNanos = periodNanos("galaga.tickRate", DEFAULT_TICK_RATE);
+        renderNanos = periodNanos("galaga.renderRate", DEFAULT_RENDER_RATE);
+        loopPacer = new FramePacer("Mises à jour", tickNanos);
+        renderPacer = new FramePacer("Images", renderNanos);
+        inputState = new InputState();
+        updateTimes = new FrameTimeHistogram("Mise à jour");
+        renderTimes = new FrameTimeHistogram("Rendu");
+        inputLatency = new FrameTimeHistogram("Latence des commandes", 100_000L);
+        particles = new ParticleSystem(MAX_PARTICLES, EXPLOSION_COLORS);
+        particles.setPhysics(0.0002, 0.96);
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+        effects = random.split(); // les explosions ne décalent pas les tirages de la simulation
+        levelFiles = new LinkedHashSet<>();
+        enemyGrid = new SpatialHash();
         
         // Charger le premier niveau
         loadLevel(currentLevelNumber);
@@ -64,7 +159,8 @@ public class Game {
      */
     private void loadLevel(int levelNumber) {
         String filename = "ressources/levels/level" + levelNumber + ".lvl";
-        currentLevel = Level.loadFromFile(filename);
+        currentLevel = Level.loadFromFile(filename, random);
+        levelFiles.add(filename);
         enemies.clear();
         enemies.addAll(currentLevel.getEnemies());
         
@@ -73,7 +169,10 @@ public class Game {
             enemy.setGame(this);
         }
         
-        System.out.println("Niveau " + levelNumber + " chargé: " + enemies.size() + " ennemis");
+        if (!simulated) {
+            System.out.println("Niveau " + levelNumber + " chargé: " + enemies.size() + " ennemis"
+                    + " (sprites: " + SpriteRegistry.getMisses() + " lus, " + SpriteRegistry.getHits() + " partagés)");
+        }
     }
 
     /**
@@ -82,6 +181,24 @@ public class Game {
     private void init() {
         StdDraw.setCanvasSize(700, 700);
         StdDraw.enableDoubleBuffering();
+        StdDraw.enableCommandBuffer(); // Dessins regroupés par couleur à chaque show()
+        SpriteAtlas.build(); // Tous les sprites dans une seule image
+        realtime = StdDraw.isRealtime();
+        if (input == null) {
+            input = new KeyboardInput(inputLatency); // événements clavier depuis l'ouverture de la fenêtre
+        }
+        if (System.getProperty("galaga.record") != null) {
+            recorder = new InputRecorder(input);
+            input = recorder;
+        }
+        System.out.println("Graine de la simulation: " + seed + " (galaga.seed)");
+
+        // Enregistrement de la partie image par image, encodé en arrière-plan
+        String captureDirectory = System.getProperty("galaga.capture");
+        if (captureDirectory != null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            capture = StdDraw.startCapture(captureDirectory, 8, threads);
+        }
     }
 
     /**
@@ -89,85 +206,315 @@ public class Game {
      */
     public void launch() {
         init();
+        if (threadedRendering) {
+            startRenderThread();
+        }
 
+        // Boucle à pas fixe : la simulation avance par mises à jour de durée
+        // tickNanos, quel que soit le temps pris par le rendu. Sans écran
+        // (backends image et none), le temps est virtuel : une mise à jour par
+        // tour, sans attente, et la partie va aussi vite que possible.
+        long previous = System.nanoTime();
+        long accumulator = 0; // temps écoulé pas encore simulé
+        long nextRender = previous;
         while (isGameRunning()) {
-            StdDraw.clear(); // On efface tous ce qu'il y a sur l'interface
+            long now = realtime ? System.nanoTime() : previous + tickNanos;
+            accumulator += now - previous;
+            previous = now;
 
-            update(); // on met a jour les attributs de chaque éléments
-            draw(); // on dessine chaques éléments
+            int steps = 0;
+            while (accumulator >= tickNanos && steps < MAX_CATCH_UP) {
+                accumulator -= tickNanos;
+                tick(now - accumulator);
+                steps++;
+            }
+            if (steps > 0 && realtime) {
+                loopPacer.frame(now);
+            }
+            if (accumulator >= tickNanos) {
+                // Trop de retard : on abandonne le reste plutôt que de ralentir encore
+                skippedTicks += accumulator / tickNanos;
+                accumulator %= tickNanos;
+            }
 
-            StdDraw.show(); // on montre l'interface
-            StdDraw.pause(30); // on attend 30 milisecondes avant de recommencer
+            if (!threadedRendering && now >= nextRender) {
+                long renderTime = realtime ? System.nanoTime() : now;
+                renderLatestFrame(renderTime); // on dessine la dernière copie
+                if (realtime) {
+                    renderPacer.frame(renderTime);
+                }
+                nextRender += renderNanos;
+                if (nextRender <= now) {
+                    nextRender = now + renderNanos; // images en retard : on ne les rattrape pas
+                }
+            }
+
+            // On attend précisément la prochaine mise à jour (ou la prochaine image)
+            long wake = now + tickNanos - accumulator;
+            if (!threadedRendering) {
+                wake = Math.min(wake, nextRender);
+            }
+            if (realtime) {
+                loopPacer.awaitDeadline(wake);
+            }
+        }
+
+        if (threadedRendering) {
+            stopRenderThread();
+        }
+        if (recorder != null) {
+            saveRecording(System.getProperty("galaga.record"));
+        }
+        if (capture != null) {
+            StdDraw.stopCapture(); // on attend l'écriture des dernières images
+            System.out.println(capture);
         }
+        System.out.println(updateTimes);
+        System.out.println(renderTimes);
+        System.out.println(inputLatency);
+        System.out.printf("Pas fixe: %.1f mises à jour/s, %.1f images/s visées, %d mises à jour abandonnées"
+                + " (rattrapage limité à %d)%n", 1e9 / tickNanos, 1e9 / renderNanos, skippedTicks, MAX_CATCH_UP);
+        if (realtime) {
+            System.out.println(loopPacer);
+            System.out.println(renderPacer);
+        }
+        System.out.println("Copies d'image: " + frames.getPublishedCount() + " publiées, "
+                + frames.getDroppedCount() + " remplacées avant d'être dessinées");
+
+        System.out.println("Atlas de sprites: " + SpriteAtlas.getBlitCount() + " copies, "
+                + SpriteAtlas.getBuildCount() + " construction(s), dernière en "
+                + SpriteAtlas.getBuildTimeNanos() / 1000 + " µs");
+        System.out.println("Remplissage: " + StdDraw.getFramePixels() + " pixels par image (échelle "
+                + StdDraw.getPixelScale() + ")");
+        System.out.println("Tampon de commandes: " + StdDraw.getCommandCount() + " commandes, "
+                + StdDraw.getStateChangeCount() + " changements d'état par image");
+        System.out.println("Particules: " + particles.size() + " vivantes, " + particles.getDroppedCount()
+                + " perdues faute de place");
+        System.out.println("Calques: interface redessinée " + renderer.getHudRenderCount() + " fois, écrans "
+                + renderer.getScreenRenderCount() + " fois, fond étoilé " + renderer.getStarfieldRenderCount()
+                + " fois");
     }
 
     /**
-     * Condition d'arrêt du jeu
-     * 
-     * @return true si le jeu continue
+     * Rejoue la partie sans fenêtre ni attente, aussi vite que le processeur
+     * le permet, jusqu'à ce que la source de commandes demande de quitter
+     * (une {@link InputReplay} le fait à la fin de l'enregistrement)
      */
-    private boolean isGameRunning() {
-        // Le jeu s'arrête si on appuie sur Échap ou si on ferme la fenêtre
-        return !StdDraw.isKeyPressed(27); // 27 = touche Échap
+    public void fastForward() {
+        if (input == null) {
+            throw new IllegalStateException("no input source");
+        }
+        long start = System.nanoTime();
+        long ticks = 0;
+        while (isGameRunning()) {
+            step();
+            ticks++;
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        System.out.printf("Avance rapide: %d mises à jour en %.1f ms (%.0f mises à jour/s, %.0f fois le temps réel),"
+                + " score %d%n", ticks, elapsed / 1e6, ticks * 1e9 / elapsed, (double) ticks * tickNanos / elapsed,
+                score);
     }
 
     /**
-     * Dessin tous les éléments du jeu
+     * Écrit les commandes enregistrées depuis le lancement
+     *
+     * @param filename fichier de relecture
      */
-    public void draw() {
-        if (state == GameState.START) {
-            drawStartScreen();
-        } else if (state == GameState.PLAYING || state == GameState.LEVEL_COMPLETE || state == GameState.PAUSED) {
-            // Dessiner tous les ennemis
-            for (Enemy enemy : enemies) {
-                enemy.draw();
-            }
-            
-            player.draw();
-            
-            // Dessiner tous les projectiles
-            for (Bullet bullet : bullets) {
-                bullet.draw();
-            }
-            
-            // Dessiner tous les projectiles ennemis
-            for (EnemyBullet bullet : enemyBullets) {
-                bullet.draw();
-            }
-            
-            // Afficher le score et les vies
-            drawUI();
-            
-            if (state == GameState.PAUSED) {
-                drawPauseScreen();
-            } else if (state == GameState.LEVEL_COMPLETE) {
-                drawLevelComplete();
+    private void saveRecording(String filename) {
+        try {
+            recorder.save(filename, seed, levelFiles, score);
+            System.out.println("Relecture enregistrée dans " + filename + ": " + recorder.getTickCount()
+                    + " mises à jour, " + recorder.getEncodedSize() + " octets de commandes");
+        } catch (IOException e) {
+            System.out.println("Impossible d'enregistrer la relecture: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remplace le clavier par une autre source de commandes (relecture, pilote
+     * automatique) ; à appeler avant {@link #launch()} ou {@link #fastForward()}
+     *
+     * @param source source interrogée à chaque mise à jour
+     */
+    public void setInputSource(InputSource source) {
+        input = source;
+    }
+
+    /**
+     * Effectue une seule mise à jour de la simulation (commandes, déplacements,
+     * collisions), sans rendu ni attente : c'est le pas des simulations sans
+     * fenêtre. La source de commandes doit avoir été fixée par
+     * {@link #setInputSource(InputSource)}.
+     */
+    public void step() {
+        update();
+    }
+
+    /**
+     * Effectue une mise à jour à pas fixe et publie la copie à afficher
+     *
+     * @param tickTime instant (System.nanoTime) auquel correspond la fin de la mise à jour
+     */
+    private void tick(long tickTime) {
+        long start = System.nanoTime();
+        update(); // on met a jour les attributs de chaque éléments
+        publishFrame(tickTime); // on publie une copie de ce qui doit être affiché
+        updateTimes.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Copie l'état affiché du jeu dans le tampon libre puis le publie
+     *
+     * @param tickTime instant (System.nanoTime) auquel correspond la fin de la mise à jour
+     */
+    private void publishFrame(long tickTime) {
+        FrameSnapshot frame = frames.getBack();
+        frame.begin(state, score, highScore, player.getLives(), currentLevelNumber, tickTime);
+        frame.setPlayer(player);
+        frame.setParticles(particles);
+        frame.setScroll(previousScroll, scrollDistance);
+        for (Enemy enemy : enemies) {
+            frame.addEnemy(enemy);
+        }
+        for (Bullet bullet : bullets) {
+            frame.addBullet(bullet);
+        }
+        for (EnemyBullet bullet : enemyBullets) {
+            frame.addEnemyBullet(bullet);
+        }
+        frames.publish();
+    }
+
+    /**
+     * Dessine la dernière copie publiée (ou de nouveau la précédente, s'il
+     * n'y en a pas de nouvelle), avec les acteurs placés entre leurs deux
+     * dernières positions selon le temps écoulé depuis la mise à jour
+     *
+     * @param now instant du rendu (System.nanoTime)
+     * @return true si une image a été dessinée
+     */
+    private boolean renderLatestFrame(long now) {
+        FrameSnapshot frame = frames.acquire();
+        if (frame != null) {
+            shownFrame = frame; // reste à nous jusqu'à la prochaine acquisition
+        }
+        if (shownFrame == null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        renderer.render(shownFrame, shownFrame.interpolation(now, tickNanos));
+        renderTimes.record(System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Démarre le thread de rendu : il dessine à sa propre cadence
+     * (galaga.renderRate) pendant que la simulation calcule les mises à jour
+     */
+    private void startRenderThread() {
+        running = true;
+        renderThread = new Thread(() -> {
+            while (running) {
+                if (realtime) {
+                    renderLatestFrame(renderPacer.sync()); // images en retard : on ne les rattrape pas
+                } else {
+                    renderLatestFrame(Long.MAX_VALUE); // sans écran : la dernière copie, sans attente
+                    Thread.yield();
+                }
             }
-        } else if (state == GameState.GAME_OVER) {
-            drawGameOver();
-        } else if (state == GameState.VICTORY) {
-            drawVictory();
+        }, "galaga-render");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    /**
+     * Arrête le thread de rendu et attend qu'il ait fini son image
+     */
+    private void stopRenderThread() {
+        running = false;
+        LockSupport.unpark(renderThread);
+        try {
+            renderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lit une fréquence dans une propriété système et la convertit en période
+     *
+     * @param property    nom de la propriété
+     * @param defaultRate fréquence par défaut (par seconde)
+     * @return période en nanosecondes
+     */
+    private static long periodNanos(String property, double defaultRate) {
+        double rate = Double.parseDouble(System.getProperty(property, Double.toString(defaultRate)));
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException(property + " must be positive");
         }
+        return Math.round(1e9 / rate);
+    }
+
+    /**
+     * Lit la graine de la simulation dans la propriété galaga.seed
+     *
+     * @return la graine demandée, ou une graine aléatoire si la propriété est absente
+     */
+    private static long seedProperty() {
+        String value = System.getProperty("galaga.seed");
+        if (value == null) {
+            return new SplittableRandom().nextLong();
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("galaga.seed must be an integer", e);
+        }
+    }
+
+    /**
+     * Retourne la graine de la simulation
+     *
+     * @return graine
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Condition d'arrêt du jeu
+     * 
+     * @return true si le jeu continue
+     */
+    public boolean isGameRunning() {
+        // Le jeu s'arrête si on appuie sur Échap ou si on ferme la fenêtre
+        return !quitRequested;
     }
 
     /**
      * Met a jour les attributs de tous les éléments du jeu
      */
     private void update() {
+        previousScroll = scrollDistance;
+        input.poll(inputState); // commandes depuis la mise à jour précédente
+        if (inputState.wasPressed(InputState.QUIT) || inputState.isHeld(InputState.QUIT)) {
+            quitRequested = true;
+        }
+        
         if (state == GameState.START) {
             // Appuyer sur Espace pour commencer
-            if (StdDraw.isKeyPressed(32)) { // Space
+            if (inputState.wasPressed(InputState.FIRE)) {
                 state = GameState.PLAYING;
             }
         } else if (state == GameState.PLAYING) {
             // Appuyer sur P pour pause
-            if (StdDraw.isKeyPressed(80)) { // P key
+            if (inputState.wasPressed(InputState.PAUSE)) {
                 state = GameState.PAUSED;
-                try { Thread.sleep(200); } catch (InterruptedException e) {}
                 return;
             }
             
-            player.update();
+            player.update(inputState);
             
             // Mettre à jour tous les projectiles
             for (Bullet bullet : bullets) {
@@ -184,6 +531,12 @@ public class Game {
                 enemy.update();
             }
             
+            // Faire vivre les débris des explosions
+            particles.update();
+            
+            // Faire défiler le fond étoilé
+            scrollDistance += currentLevel.getScrollSpeed();
+            
             // Vérifier les collisions
             checkCollisions();
             
@@ -198,9 +551,8 @@ public class Game {
             checkGameState();
         } else if (state == GameState.PAUSED) {
             // Appuyer sur P pour reprendre
-            if (StdDraw.isKeyPressed(80)) { // P key
+            if (inputState.wasPressed(InputState.PAUSE)) {
                 state = GameState.PLAYING;
-                try { Thread.sleep(200); } catch (InterruptedException e) {}
             }
         } else if (state == GameState.LEVEL_COMPLETE) {
             transitionTimer++;
@@ -209,7 +561,7 @@ public class Game {
             }
         } else if (state == GameState.GAME_OVER || state == GameState.VICTORY) {
             // Possibilité de redémarrer avec R
-            if (StdDraw.isKeyPressed(82)) { // R key
+            if (inputState.wasPressed(InputState.RESTART)) {
                 restart();
             }
         }
@@ -237,23 +589,23 @@ public class Game {
      * Vérifie les collisions entre projectiles et ennemis
      */
     private void checkCollisions() {
-        // Collision projectiles joueur vs ennemis
+        // Collision projectiles joueur vs ennemis : chaque projectile ne teste
+        // que les ennemis de sa case dans la grille
+        enemyGrid.build(enemies);
         for (Bullet bullet : bullets) {
             if (!bullet.isActive()) continue;
             
-            for (Enemy enemy : enemies) {
-                if (!enemy.isActive()) continue;
+            // Premier ennemi touché par le projectile
+            Enemy enemy = enemyGrid.firstHit(bullet.getX(), bullet.getY());
+            if (enemy != null) {
+                enemy.takeDamage(1);
+                bullet.deactivate();
                 
-                // Vérifier si le projectile touche l'ennemi
-                if (enemy.collidesWith(bullet.getX(), bullet.getY())) {
-                    enemy.takeDamage(1);
-                    bullet.deactivate();
-                    
-                    // Ajouter des points si l'ennemi est détruit
-                    if (!enemy.isActive()) {
-                        score += enemy.getScoreValue();
-                    }
-                    break;
+                // Ajouter des points si l'ennemi est détruit
+                if (!enemy.isActive()) {
+                    score += enemy.getScoreValue();
+                    kills++;
+                    explode(enemy);
                 }
             }
         }
@@ -269,7 +621,9 @@ public class Game {
             if (distance < player.getLength() / 2) {
                 bullet.deactivate();
                 player.loseLife();
-                System.out.println("Joueur touché! Vies restantes: " + player.getLives());
+                if (!simulated) {
+                    System.out.println("Joueur touché! Vies restantes: " + player.getLives());
+                }
             }
         }
         
@@ -280,7 +634,9 @@ public class Game {
             if (enemy.collidesWith(player.getX(), player.getY())) {
                 enemy.deactivate();
                 player.loseLife();
-                System.out.println("Collision avec ennemi! Vies restantes: " + player.getLives());
+                if (!simulated) {
+                    System.out.println("Collision avec ennemi! Vies restantes: " + player.getLives());
+                }
             }
         }
     }
@@ -294,7 +650,9 @@ public class Game {
             state = GameState.GAME_OVER;
             if (score > highScore) {
                 highScore = score;
-                saveHighScore(highScore);
+                if (!simulated) {
+                    saveHighScore(highScore);
+                }
             }
             return;
         }
@@ -305,7 +663,9 @@ public class Game {
                 state = GameState.VICTORY;
                 if (score > highScore) {
                     highScore = score;
-                    saveHighScore(highScore);
+                    if (!simulated) {
+                        saveHighScore(highScore);
+                    }
                 }
             } else {
                 state = GameState.LEVEL_COMPLETE;
@@ -314,6 +674,16 @@ public class Game {
         }
     }
     
+    /**
+     * Fait exploser un ennemi détruit en une gerbe de particules
+     * 
+     * @param enemy l'ennemi détruit
+     */
+    private void explode(Enemy enemy) {
+        particles.explode(enemy.getX(), enemy.getY(), EXPLOSION_PARTICLES, enemy.getLength() / 6,
+                enemy.getLength() / 20, 30, 0, EXPLOSION_COLORS.length, effects);
+    }
+    
     /**
      * Passe au niveau suivant
      */
@@ -334,9 +704,11 @@ public class Game {
     private void restart() {
         currentLevelNumber = 1;
         score = 0;
+        kills = 0;
         bullets.clear();
         enemyBullets.clear();
         enemies.clear();
+        particles.clear();
         player = new Player(0.5, 0.1, 0.05);
         player.setGame(this);
         loadLevel(currentLevelNumber);
@@ -344,128 +716,59 @@ public class Game {
     }
     
     /**
-     * Dessine l'interface utilisateur (score, vies)
+     * Retourne le score actuel
+     * @return score
      */
-    private void drawUI() {
-        // Afficher le score
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.textLeft(0.02, 0.98, "Score: " + score);
-        
-        // Afficher les vies
-        StdDraw.textLeft(0.02, 0.95, "Vies: " + player.getLives());
-        
-        // Afficher le niveau
-        StdDraw.textLeft(0.02, 0.92, "Niveau: " + currentLevelNumber);
-        
-        // Afficher le high score
-        StdDraw.textRight(0.98, 0.98, "High Score: " + highScore);
+    public int getScore() {
+        return score;
     }
     
     /**
-     * Dessine l'écran de démarrage
+     * Retourne l'état actuel du jeu
+     * @return état
      */
-    private void drawStartScreen() {
-        StdDraw.setPenColor(Color.YELLOW);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(50f));
-        StdDraw.text(0.5, 0.7, "GALAGA");
-        
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(20f));
-        StdDraw.text(0.5, 0.55, "High Score: " + highScore);
-        
-        StdDraw.setFont(StdDraw.getFont().deriveFont(16f));
-        StdDraw.text(0.5, 0.45, "CONTRÔLES:");
-        StdDraw.text(0.5, 0.40, "← → : Déplacer le vaisseau");
-        StdDraw.text(0.5, 0.36, "ESPACE : Tirer");
-        StdDraw.text(0.5, 0.32, "P : Pause");
-        StdDraw.text(0.5, 0.28, "ESC : Quitter");
-        
-        StdDraw.setPenColor(Color.GREEN);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(24f));
-        StdDraw.text(0.5, 0.15, "Appuyez sur ESPACE pour commencer");
-        
-        // Réinitialiser la police
-        StdDraw.setFont(StdDraw.getFont().deriveFont(12f));
+    public GameState getState() {
+        return state;
     }
     
     /**
-     * Dessine l'écran de pause
+     * Retourne le numéro du niveau actuel
+     * @return numéro du niveau
      */
-    private void drawPauseScreen() {
-        // Fond semi-transparent
-        StdDraw.setPenColor(new Color(0, 0, 0, 180));
-        StdDraw.filledRectangle(0.5, 0.5, 0.5, 0.5);
-        
-        StdDraw.setPenColor(Color.YELLOW);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(40f));
-        StdDraw.text(0.5, 0.55, "PAUSE");
-        
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(20f));
-        StdDraw.text(0.5, 0.45, "Appuyez sur P pour continuer");
-        
-        // Réinitialiser la police
-        StdDraw.setFont(StdDraw.getFont().deriveFont(12f));
+    public int getLevelNumber() {
+        return currentLevelNumber;
     }
     
     /**
-     * Dessine l'écran de game over
+     * Retourne la durée simulée d'une mise à jour
+     * @return durée en nanosecondes
      */
-    private void drawGameOver() {
-        StdDraw.setPenColor(Color.RED);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(40f));
-        StdDraw.text(0.5, 0.6, "GAME OVER");
-        
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(20f));
-        StdDraw.text(0.5, 0.5, "Score Final: " + score);
-        StdDraw.text(0.5, 0.4, "Appuyez sur R pour recommencer");
-        StdDraw.text(0.5, 0.35, "ou Échap pour quitter");
-        
-        // Réinitialiser la police
-        StdDraw.setFont(StdDraw.getFont().deriveFont(12f));
+    public long getTickNanos() {
+        return tickNanos;
     }
     
     /**
-     * Dessine l'écran de niveau complété
+     * Retourne les ennemis encore en jeu (liste du jeu, à ne pas modifier)
+     * @return ennemis
      */
-    private void drawLevelComplete() {
-        StdDraw.setPenColor(Color.YELLOW);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(35f));
-        StdDraw.text(0.5, 0.5, "NIVEAU " + currentLevelNumber + " COMPLÉTÉ!");
-        
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(20f));
-        StdDraw.text(0.5, 0.4, "Chargement du niveau suivant...");
-        
-        // Réinitialiser la police
-        StdDraw.setFont(StdDraw.getFont().deriveFont(12f));
+    List<Enemy> getEnemies() {
+        return enemies;
     }
     
     /**
-     * Dessine l'écran de victoire
+     * Retourne les projectiles ennemis en vol (liste du jeu, à ne pas modifier)
+     * @return projectiles ennemis
      */
-    private void drawVictory() {
-        StdDraw.setPenColor(Color.GREEN);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(40f));
-        StdDraw.text(0.5, 0.6, "VICTOIRE!");
-        
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.setFont(StdDraw.getFont().deriveFont(20f));
-        StdDraw.text(0.5, 0.5, "Score Final: " + score);
-        StdDraw.text(0.5, 0.4, "Tous les niveaux complétés!");
-        StdDraw.text(0.5, 0.35, "Appuyez sur R pour recommencer");
-        
-        // Réinitialiser la police
-        StdDraw.setFont(StdDraw.getFont().deriveFont(12f));
+    List<EnemyBullet> getEnemyBullets() {
+        return enemyBullets;
     }
     
     /**
-     * Retourne le score actuel
-     * @return score
+     * Retourne le nombre d'ennemis détruits par les tirs du joueur
+     * @return nombre d'ennemis détruits
      */
-    public int getScore() {
-        return score;
+    public int getKills() {
+        return kills;
     }
     
     /**
@@ -0,0 +1,130 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Enregistre les commandes de chaque mise à jour pour rejouer la partie.
+ * Les commandes d'une mise à jour tiennent sur 18 bits : les commandes
+ * maintenues, puis les appuis et relâchements qui ne se déduisent pas du
+ * changement des commandes maintenues (appuis brefs entre deux mises à jour).
+ * Seuls les changements de cette valeur sont écrits, chacun sous la forme
+ * (nombre de mises à jour inchangées, bits modifiés), deux entiers de taille
+ * variable : une partie ordinaire tient en quelques octets par seconde.
+ * <p>
+ * Le fichier contient aussi la graine de la simulation, les fichiers de
+ * niveau utilisés (avec leur somme de contrôle) et le score final : voir
+ * {@link InputReplay}.
+ */
+public final class InputRecorder implements InputSource {
+    static final int MAGIC = 0x47524550; // "GREP" : début d'un fichier de relecture
+    static final int VERSION = 1; // version du format
+    static final int SHIFT = InputState.BUTTONS; // décalage entre les trois masques d'une valeur
+
+    private final InputSource source; // source enregistrée
+    private byte[] data = new byte[256]; // changements encodés
+    private int size; // octets utilisés dans data
+    private int current; // valeur de la suite en cours
+    private int held; // commandes maintenues à la mise à jour précédente
+    private long run; // mises à jour de la suite en cours
+    private long ticks; // mises à jour enregistrées
+
+    /**
+     * Crée un enregistreur qui transmet les commandes d'une autre source
+     *
+     * @param source source dont les commandes sont enregistrées
+     */
+    public InputRecorder(InputSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public void poll(InputState state) {
+        source.poll(state);
+        int value = pack(held, state.getHeld(), state.getPressed(), state.getReleased());
+        held = state.getHeld();
+        if (value != current) {
+            writeVarLong(run);
+            writeVarLong(value ^ current);
+            current = value;
+            run = 0;
+        }
+        run++;
+        ticks++;
+    }
+
+    /**
+     * Regroupe les commandes d'une mise à jour en une seule valeur ; les
+     * appuis et relâchements sont exprimés par rapport à ceux que laisse
+     * prévoir le changement des commandes maintenues
+     *
+     * @param previous commandes maintenues à la mise à jour précédente
+     */
+    static int pack(int previous, int held, int pressed, int released) {
+        int expectedPressed = held & ~previous;
+        int expectedReleased = previous & ~held;
+        return held | (pressed ^ expectedPressed) << SHIFT | (released ^ expectedReleased) << 2 * SHIFT;
+    }
+
+    private void writeVarLong(long value) {
+        while (true) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, 2 * size);
+            }
+            if ((value & ~0x7FL) == 0) {
+                data[size++] = (byte) value;
+                return;
+            }
+            data[size++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+    }
+
+    /**
+     * Écrit l'enregistrement dans un fichier
+     *
+     * @param filename fichier de relecture à créer
+     * @param seed     graine de la simulation
+     * @param levels   fichiers de niveau chargés pendant la partie
+     * @param score    score final, vérifié à la relecture
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    public void save(String filename, long seed, Collection<String> levels, int score) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(seed);
+            out.writeShort(levels.size());
+            for (String level : levels) {
+                out.writeUTF(level);
+                out.writeLong(InputReplay.checksum(level));
+            }
+            out.writeInt(score);
+            out.writeLong(ticks);
+            out.writeInt(size);
+            out.write(data, 0, size);
+        }
+    }
+
+    /**
+     * Retourne le nombre de mises à jour enregistrées
+     *
+     * @return nombre de mises à jour
+     */
+    public long getTickCount() {
+        return ticks;
+    }
+
+    /**
+     * Retourne la taille des commandes encodées
+     *
+     * @return nombre d'octets (hors en-tête)
+     */
+    public int getEncodedSize() {
+        return size;
+    }
+}
@@ -0,0 +1,199 @@
+package game;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Rejoue les commandes d'un fichier écrit par {@link InputRecorder}, une
+ * valeur par mise à jour, à la place du clavier. Avec la graine enregistrée,
+ * la partie se déroule exactement comme lors de l'enregistrement. Une fois
+ * toutes les mises à jour rejouées, la source demande de quitter.
+ */
+public final class InputReplay implements InputSource {
+    private final long seed; // graine de la simulation enregistrée
+    private final List<String> levels; // fichiers de niveau de la partie
+    private final int score; // score final enregistré
+    private final long ticks; // mises à jour enregistrées
+    private final byte[] data; // changements encodés
+    private int position; // prochain octet à lire dans data
+    private int current; // valeur de la suite en cours
+    private int held; // commandes maintenues à la mise à jour précédente
+    private long left; // mises à jour restantes avec la valeur courante
+    private long tick; // mises à jour rejouées
+
+    private InputReplay(long seed, List<String> levels, int score, long ticks, byte[] data) {
+        this.seed = seed;
+        this.levels = levels;
+        this.score = score;
+        this.ticks = ticks;
+        this.data = data;
+        left = position < data.length ? readVarLong() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Lit un fichier de relecture. Un avertissement est affiché pour chaque
+     * fichier de niveau modifié depuis l'enregistrement : la partie risque
+     * alors de ne pas se dérouler à l'identique.
+     *
+     * @param filename fichier de relecture
+     * @return la relecture, prête à être interrogée
+     * @throws IOException si le fichier ne peut pas être lu, n'est pas une relecture ou est tronqué
+     */
+    public static InputReplay load(String filename) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IOException(filename + " is not a replay file");
+            }
+            int version = in.readShort();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException(filename + ": unsupported replay version " + version);
+            }
+            long seed = in.readLong();
+            int levelCount = in.readShort();
+            List<String> levels = new ArrayList<>(levelCount);
+            for (int i = 0; i < levelCount; i++) {
+                String level = in.readUTF();
+                long checksum = in.readLong();
+                if (checksum(level) != checksum) {
+                    System.err.println("Niveau modifié depuis l'enregistrement: " + level);
+                }
+                levels.add(level);
+            }
+            int score = in.readInt();
+            long ticks = in.readLong();
+            int size = in.readInt();
+            if (size < 0) {
+                throw new IOException(filename + ": corrupt replay file");
+            }
+            byte[] data = new byte[size];
+            in.readFully(data);
+            for (int position = 0; position < data.length; ) { // des paires complètes, sans déborder
+                position = skipVarLong(data, skipVarLong(data, position, filename), filename);
+            }
+            return new InputReplay(seed, Collections.unmodifiableList(levels), score, ticks, data);
+        }
+    }
+
+    /**
+     * Calcule la somme de contrôle d'un fichier de niveau
+     *
+     * @param filename fichier de niveau
+     * @return CRC-32 du contenu, ou -1 si le fichier est illisible
+     */
+    static long checksum(String filename) {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(Paths.get(filename))) {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return crc.getValue();
+    }
+
+    @Override
+    public void poll(InputState state) {
+        if (tick >= ticks) {
+            state.set(InputState.QUIT, InputState.QUIT, 0); // fin de l'enregistrement
+            return;
+        }
+        while (left == 0) {
+            current ^= (int) readVarLong();
+            left = position < data.length ? readVarLong() : Long.MAX_VALUE;
+        }
+        left--;
+        tick++;
+        int mask = (1 << InputRecorder.SHIFT) - 1;
+        int previous = held;
+        held = current & mask;
+        int pressed = (current >>> InputRecorder.SHIFT & mask) ^ (held & ~previous);
+        int released = (current >>> 2 * InputRecorder.SHIFT & mask) ^ (previous & ~held);
+        state.set(held, pressed, released);
+    }
+
+    /**
+     * Vérifie qu'un entier de taille variable est complet
+     *
+     * @return position de l'octet qui suit l'entier
+     * @throws IOException si l'entier déborde des données
+     */
+    private static int skipVarLong(byte[] data, int position, String filename) throws IOException {
+        for (int n = 0; n < 10; n++) {
+            if (position >= data.length) {
+                throw new IOException(filename + ": truncated replay file");
+            }
+            if (data[position++] >= 0) {
+                return position;
+            }
+        }
+        throw new IOException(filename + ": corrupt replay file");
+    }
+
+    private long readVarLong() { // données vérifiées au chargement
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Retourne la graine de la simulation enregistrée
+     *
+     * @return graine
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retourne les fichiers de niveau chargés pendant la partie
+     *
+     * @return liste non modifiable des fichiers
+     */
+    public List<String> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Retourne le score final enregistré
+     *
+     * @return score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Retourne le nombre de mises à jour enregistrées
+     *
+     * @return nombre de mises à jour
+     */
+    public long getTickCount() {
+        return ticks;
+    }
+
+    /**
+     * Indique si toutes les mises à jour enregistrées ont été rejouées
+     *
+     * @return true si la relecture est terminée
+     */
+    public boolean isFinished() {
+        return tick >= ticks;
+    }
+}
@@ -0,0 +1,14 @@
+package game;
+
+/**
+ * Source des commandes du jeu (clavier, ou tout autre pilote).
+ * Elle est interrogée une fois au début de chaque mise à jour.
+ */
+public interface InputSource {
+    /**
+     * Copie l'état des commandes depuis l'interrogation précédente
+     *
+     * @param state reçoit les commandes maintenues, enfoncées et relâchées
+     */
+    void poll(InputState state);
+}
@@ -0,0 +1,93 @@
+package game;
+
+/**
+ * Copie de l'état des commandes pour une mise à jour. Chaque commande est
+ * un bit : on sait si elle est maintenue, et si elle a été enfoncée ou
+ * relâchée depuis la copie précédente (fronts). Les transitions d'état du
+ * jeu (démarrer, pause, recommencer) réagissent ainsi à la mise à jour
+ * exacte de l'appui, sans attendre ni dormir.
+ */
+public final class InputState {
+    public static final int LEFT = 1; // déplacement à gauche
+    public static final int RIGHT = 1 << 1; // déplacement à droite
+    public static final int FIRE = 1 << 2; // tir (et démarrage)
+    public static final int PAUSE = 1 << 3; // pause / reprise
+    public static final int RESTART = 1 << 4; // recommencer
+    public static final int QUIT = 1 << 5; // quitter
+    public static final int BUTTONS = 6; // nombre de commandes
+
+    private int held; // commandes maintenues
+    private int pressed; // commandes enfoncées depuis la copie précédente
+    private int released; // commandes relâchées depuis la copie précédente
+
+    /**
+     * Remplace l'état des commandes
+     *
+     * @param held     commandes maintenues
+     * @param pressed  commandes enfoncées depuis la copie précédente
+     * @param released commandes relâchées depuis la copie précédente
+     */
+    public void set(int held, int pressed, int released) {
+        this.held = held;
+        this.pressed = pressed;
+        this.released = released;
+    }
+
+    /**
+     * Indique si une commande est maintenue
+     *
+     * @param button la commande (LEFT, RIGHT, FIRE...)
+     * @return true si la commande est maintenue
+     */
+    public boolean isHeld(int button) {
+        return (held & button) != 0;
+    }
+
+    /**
+     * Indique si une commande a été enfoncée depuis la copie précédente
+     * (même si elle a déjà été relâchée)
+     *
+     * @param button la commande
+     * @return true si la commande a été enfoncée
+     */
+    public boolean wasPressed(int button) {
+        return (pressed & button) != 0;
+    }
+
+    /**
+     * Indique si une commande a été relâchée depuis la copie précédente
+     *
+     * @param button la commande
+     * @return true si la commande a été relâchée
+     */
+    public boolean wasReleased(int button) {
+        return (released & button) != 0;
+    }
+
+    /**
+     * Retourne les commandes maintenues
+     *
+     * @return masque de bits
+     */
+    public int getHeld() {
+        return held;
+    }
+
+    /**
+     * Retourne les commandes enfoncées depuis la copie précédente
+     *
+     * @return masque de bits
+     */
+    public int getPressed() {
+        return pressed;
+    }
+
+    /**
+     * Retourne les commandes relâchées depuis la copie précédente
+     *
+     * @return masque de bits
+     */
+    public int getReleased() {
+        return released;
+    }
+}
@@ -0,0 +1,81 @@
+package game;
+
+import engine.FrameTimeHistogram;
+import engine.KeyEventRing;
+import engine.StdDraw;
+
+/**
+ * Commandes lues au clavier de la fenêtre StdDraw. Chaque interrogation
+ * vide la file des événements clavier horodatés accumulés depuis la
+ * précédente : un appui bref entre deux mises à jour n'est jamais perdu,
+ * et le délai entre l'événement et sa prise en compte par la simulation
+ * est mesuré.
+ */
+public final class KeyboardInput implements InputSource, KeyEventRing.Visitor {
+    // Touche de chaque commande, dans l'ordre des bits de InputState
+    private static final int[] KEYS = {
+        37, // LEFT : flèche gauche
+        39, // RIGHT : flèche droite
+        32, // FIRE : espace
+        80, // PAUSE : P
+        82, // RESTART : R
+        27  // QUIT : Échap
+    };
+
+    private final KeyEventRing events; // événements publiés par les écouteurs de StdDraw
+    private final FrameTimeHistogram latency; // délais entre événement et mise à jour
+    private int held; // commandes maintenues
+    private int pressed; // commandes enfoncées depuis l'interrogation précédente
+    private int released; // commandes relâchées depuis l'interrogation précédente
+    private long pollTime; // instant de l'interrogation en cours
+    private long dropped; // événements perdus déjà constatés
+
+    /**
+     * Crée une source clavier ; les événements antérieurs sont ignorés
+     *
+     * @param latency reçoit le délai de chaque événement pris en compte
+     */
+    public KeyboardInput(FrameTimeHistogram latency) {
+        this.latency = latency;
+        events = StdDraw.getKeyEvents();
+        events.skipAll();
+        dropped = events.getDroppedCount();
+    }
+
+    @Override
+    public void poll(InputState state) {
+        pressed = 0;
+        released = 0;
+        pollTime = System.nanoTime();
+        events.drain(this);
+        if (events.getDroppedCount() != dropped) {
+            // File débordée : on retrouve au moins les touches maintenues
+            dropped = events.getDroppedCount();
+            held = 0;
+            for (int i = 0; i < KEYS.length; i++) {
+                if (StdDraw.isKeyPressed(KEYS[i])) {
+                    held |= 1 << i;
+                }
+            }
+        }
+        state.set(held, pressed, released);
+    }
+
+    @Override
+    public void keyEvent(int keycode, boolean down, long nanos) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i] == keycode) {
+                int button = 1 << i;
+                if (down) {
+                    held |= button;
+                    pressed |= button;
+                } else {
+                    held &= ~button;
+                    released |= button;
+                }
+                latency.record(pollTime - nanos);
+                return;
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Classe représentant un niveau du jeu.
@@ -32,9 +33,10 @@ public class Level {
      * Charge un niveau depuis un fichier
      * 
      * @param filename chemin du fichier niveau
+     * @param random générateur aléatoire du jeu, transmis aux ennemis
      * @return le niveau chargé
      */
-    public static Level loadFromFile(String filename) {
+    public static Level loadFromFile(String filename, SplittableRandom random) {
         Level level = new Level();
         
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
@@ -55,7 +57,7 @@ public class Level {
                     firstLine = false;
                 } else {
                     // Lignes suivantes: définitions d'ennemis
-                    level.parseEnemyLine(line);
+                    level.parseEnemyLine(line, random);
                 }
             }
         } catch (IOException e) {
@@ -71,8 +73,9 @@ public class Level {
      * Format: Type x y size score speed
      * 
      * @param line la ligne à parser
+     * @param random générateur aléatoire du jeu
      */
-    private void parseEnemyLine(String line) {
+    private void parseEnemyLine(String line, SplittableRandom random) {
         String[] parts = line.split(" ");
         if (parts.length < 6) return;
         
@@ -88,13 +91,13 @@ public class Level {
             
             switch (type.toLowerCase()) {
                 case "bee":
-                    enemy = new Bee(x, y, size, score, speed);
+                    enemy = new Bee(x, y, size, score, speed, random);
                     break;
                 case "butterfly":
-                    enemy = new Butterfly(x, y, size, score, speed);
+                    enemy = new Butterfly(x, y, size, score, speed, random);
                     break;
                 case "moth":
-                    enemy = new Moth(x, y, size, score, speed);
+                    enemy = new Moth(x, y, size, score, speed, random);
                     break;
                 default:
                     System.err.println("Type d'ennemi inconnu: " + type);
@@ -126,6 +129,15 @@ public class Level {
         return name;
     }
     
+    /**
+     * Retourne la vitesse de défilement du fond
+     * 
+     * @return distance parcourue par image (en hauteurs d'écran)
+     */
+    public double getScrollSpeed() {
+        return scrollSpeed;
+    }
+    
     /**
      * Retourne le score cible
      * 
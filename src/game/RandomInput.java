@@ -0,0 +1,37 @@
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Commandes aléatoires pour les tests d'endurance : des déplacements qui
+ * changent de temps en temps et des tirs au hasard. Pause, recommencer et
+ * quitter ne sont jamais demandés. Les tirages découlent d'une graine : la
+ * même graine redonne les mêmes commandes.
+ */
+public final class RandomInput implements InputSource {
+    private static final double TURN_PROBABILITY = 0.05; // changement de direction par mise à jour
+    private static final double FIRE_PROBABILITY = 0.2; // tir par mise à jour
+
+    private final SplittableRandom random; // tirages des commandes
+    private int held; // commandes maintenues
+
+    /**
+     * Crée une source de commandes aléatoires
+     *
+     * @param seed graine des tirages
+     */
+    public RandomInput(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void poll(InputState state) {
+        int previous = held;
+        if (random.nextDouble() < TURN_PROBABILITY) {
+            int r = random.nextInt(3);
+            held = r == 0 ? 0 : r == 1 ? InputState.LEFT : InputState.RIGHT;
+        }
+        int pressed = random.nextDouble() < FIRE_PROBABILITY ? InputState.FIRE : 0;
+        state.set(held, pressed | held & ~previous, previous & ~held);
+    }
+}
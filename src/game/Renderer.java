@@ -0,0 +1,292 @@
+package game;
+
+import engine.Layer;
+import engine.StdDraw;
+import engine.Starfield;
+import java.awt.Color;
+import java.awt.Font;
+
+/**
+ * Dessin du jeu à partir d'une copie publiée par la simulation.
+ * Le rendu ne lit jamais l'état vivant du jeu : il peut donc s'exécuter
+ * sur un autre thread que la mise à jour.
+ */
+final class Renderer {
+    // Polices et couleurs de l'interface (créées une seule fois)
+    private static final Font BASE_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private static final Font TITLE_FONT = BASE_FONT.deriveFont(50f);
+    private static final Font HEADING_FONT = BASE_FONT.deriveFont(40f);
+    private static final Font LEVEL_FONT = BASE_FONT.deriveFont(35f);
+    private static final Font PROMPT_FONT = BASE_FONT.deriveFont(24f);
+    private static final Font TEXT_FONT = BASE_FONT.deriveFont(20f);
+    private static final Font HUD_FONT = BASE_FONT.deriveFont(12f);
+    private static final Color PAUSE_BACKGROUND = new Color(0, 0, 0, 180);
+    private static final Color BACKGROUND = Color.BLACK; // fond de l'espace
+
+    // Bandeau du score et des vies en haut de l'écran
+    private static final double HUD_Y = 0.95;
+    private static final double HUD_HALF_HEIGHT = 0.05;
+
+    private final boolean dirtyRects; // ne redessiner que les zones qui ont changé
+    private final DirtyRegion dirtyRegion; // zones à redessiner (mode dirtyRects)
+    private Game.GameState drawnState; // état affiché lors de la dernière image
+    private double drawnScroll = Double.NaN; // défilement du fond lors de la dernière image
+    private final Layer hudLayer; // score et vies, redessinés seulement quand ils changent
+    private final Layer screenLayer; // écrans fixes (démarrage, pause, fin...)
+    private final Starfield starfield; // fond étoilé à défilement parallaxe
+
+    /**
+     * Crée le rendu du jeu
+     *
+     * @param dirtyRects true pour ne redessiner que les zones qui ont changé
+     */
+    Renderer(boolean dirtyRects) {
+        this.dirtyRects = dirtyRects;
+        dirtyRegion = new DirtyRegion();
+        hudLayer = new Layer(0.5, HUD_Y, 0.5, HUD_HALF_HEIGHT);
+        screenLayer = new Layer(0.5, 0.5, 0.5, 0.5);
+        starfield = new Starfield(3, 80, 1);
+    }
+
+    /**
+     * Produit une image complète à l'écran
+     *
+     * @param frame la copie à afficher
+     * @param alpha fraction de la mise à jour suivante écoulée, pour placer
+     *              les acteurs entre deux mises à jour
+     */
+    void render(FrameSnapshot frame, double alpha) {
+        if (dirtyRects) {
+            drawChanges(frame, alpha); // on ne redessine que ce qui a changé
+        } else {
+            StdDraw.clear(BACKGROUND); // On efface tous ce qu'il y a sur l'interface
+            draw(frame, alpha); // on dessine chaques éléments
+            StdDraw.show(); // on montre l'interface
+        }
+    }
+
+    /**
+     * Dessin tous les éléments du jeu
+     *
+     * @param frame la copie à dessiner
+     * @param alpha fraction de la mise à jour suivante écoulée
+     */
+    void draw(FrameSnapshot frame, double alpha) {
+        starfield.draw(frame.getScroll(alpha)); // quelques copies, quel que soit le nombre d'étoiles
+        
+        Game.GameState state = frame.getState();
+        if (state == Game.GameState.PLAYING || state == Game.GameState.LEVEL_COMPLETE
+                || state == Game.GameState.PAUSED) {
+            // Dessiner les ennemis, le joueur et les projectiles
+            frame.drawActors(alpha);
+            
+            // Afficher le score et les vies
+            drawUI(frame);
+            
+            if (state != Game.GameState.PLAYING) {
+                drawScreen(frame); // pause ou niveau complété, par-dessus le jeu
+            }
+        } else {
+            drawScreen(frame);
+        }
+    }
+
+    /**
+     * Redessine uniquement les zones de l'écran qui ont changé depuis
+     * l'image précédente : anciennes et nouvelles positions des éléments
+     * qui ont bougé, et l'interface si le score ou les vies ont changé.
+     * Si rien n'a changé (écrans fixes), aucune image n'est produite ;
+     * tant que le fond défile, chaque image est redessinée en entier.
+     */
+    private void drawChanges(FrameSnapshot frame, double alpha) {
+        Game.GameState state = frame.getState();
+        if (state != drawnState) {
+            dirtyRegion.invalidate(); // changement d'écran : tout redessiner
+            drawnState = state;
+        }
+        // Le fond défile : tout l'écran change, redessin complet sans découpage
+        double scroll = frame.getScroll(alpha);
+        if (scroll != drawnScroll) {
+            dirtyRegion.invalidate();
+            drawnScroll = scroll;
+        }
+        if (state == Game.GameState.PLAYING || state == Game.GameState.LEVEL_COMPLETE
+                || state == Game.GameState.PAUSED) {
+            frame.markActors(dirtyRegion, alpha);
+            // Interface : sale seulement si une des valeurs affichées change
+            dirtyRegion.mark(0.5, HUD_Y, 0.5, HUD_HALF_HEIGHT, frame.hudKey());
+        }
+        dirtyRegion.endFrame();
+
+        if (dirtyRegion.takeFull()) {
+            StdDraw.clear(BACKGROUND);
+            draw(frame, alpha);
+            StdDraw.show();
+        } else if (dirtyRegion.size() > 0) {
+            StdDraw.setClip(dirtyRegion.getX(), dirtyRegion.getY(), dirtyRegion.getHalfWidth(),
+                    dirtyRegion.getHalfHeight(), dirtyRegion.size());
+            StdDraw.clear(BACKGROUND);
+            draw(frame, alpha);
+            StdDraw.show();
+            StdDraw.clearClip();
+        }
+    }
+
+    /**
+     * Dessine l'écran correspondant à l'état du jeu depuis son calque,
+     * qui n'est redessiné que si l'écran ou ses valeurs ont changé
+     */
+    private void drawScreen(FrameSnapshot frame) {
+        Game.GameState state = frame.getState();
+        if (screenLayer.begin(frame.hudKey() * 31 + state.ordinal())) {
+            if (state == Game.GameState.START) {
+                drawStartScreen(frame);
+            } else if (state == Game.GameState.PAUSED) {
+                drawPauseScreen();
+            } else if (state == Game.GameState.LEVEL_COMPLETE) {
+                drawLevelComplete(frame);
+            } else if (state == Game.GameState.GAME_OVER) {
+                drawGameOver(frame);
+            } else if (state == Game.GameState.VICTORY) {
+                drawVictory(frame);
+            }
+            screenLayer.end();
+        }
+        screenLayer.draw();
+    }
+
+    /**
+     * Dessine l'interface utilisateur (score, vies) depuis son calque,
+     * qui n'est redessiné que si une des valeurs affichées a changé
+     */
+    private void drawUI(FrameSnapshot frame) {
+        if (hudLayer.begin(frame.hudKey())) {
+            // Afficher le score
+            StdDraw.setPenColor(Color.WHITE);
+            StdDraw.setFont(HUD_FONT);
+            StdDraw.textLeft(0.02, 0.98, "Score: " + frame.getScore());
+            
+            // Afficher les vies
+            StdDraw.textLeft(0.02, 0.95, "Vies: " + frame.getLives());
+            
+            // Afficher le niveau
+            StdDraw.textLeft(0.02, 0.92, "Niveau: " + frame.getLevel());
+            
+            // Afficher le high score
+            StdDraw.textRight(0.98, 0.98, "High Score: " + frame.getHighScore());
+            hudLayer.end();
+        }
+        hudLayer.draw();
+    }
+    
+    /**
+     * Dessine l'écran de démarrage
+     */
+    private void drawStartScreen(FrameSnapshot frame) {
+        StdDraw.setPenColor(Color.YELLOW);
+        StdDraw.setFont(TITLE_FONT);
+        StdDraw.text(0.5, 0.7, "GALAGA");
+        
+        StdDraw.setPenColor(Color.WHITE);
+        StdDraw.setFont(TEXT_FONT);
+        StdDraw.text(0.5, 0.55, "High Score: " + frame.getHighScore());
+        
+        StdDraw.setFont(BASE_FONT);
+        StdDraw.text(0.5, 0.45, "CONTRÔLES:");
+        StdDraw.text(0.5, 0.40, "← → : Déplacer le vaisseau");
+        StdDraw.text(0.5, 0.36, "ESPACE : Tirer");
+        StdDraw.text(0.5, 0.32, "P : Pause");
+        StdDraw.text(0.5, 0.28, "ESC : Quitter");
+        
+        StdDraw.setPenColor(Color.GREEN);
+        StdDraw.setFont(PROMPT_FONT);
+        StdDraw.text(0.5, 0.15, "Appuyez sur ESPACE pour commencer");
+    }
+    
+    /**
+     * Dessine l'écran de pause
+     */
+    private void drawPauseScreen() {
+        // Fond semi-transparent
+        StdDraw.setPenColor(PAUSE_BACKGROUND);
+        StdDraw.filledRectangle(0.5, 0.5, 0.5, 0.5);
+        
+        StdDraw.setPenColor(Color.YELLOW);
+        StdDraw.setFont(HEADING_FONT);
+        StdDraw.text(0.5, 0.55, "PAUSE");
+        
+        StdDraw.setPenColor(Color.WHITE);
+        StdDraw.setFont(TEXT_FONT);
+        StdDraw.text(0.5, 0.45, "Appuyez sur P pour continuer");
+    }
+    
+    /**
+     * Dessine l'écran de game over
+     */
+    private void drawGameOver(FrameSnapshot frame) {
+        StdDraw.setPenColor(Color.RED);
+        StdDraw.setFont(HEADING_FONT);
+        StdDraw.text(0.5, 0.6, "GAME OVER");
+        
+        StdDraw.setPenColor(Color.WHITE);
+        StdDraw.setFont(TEXT_FONT);
+        StdDraw.text(0.5, 0.5, "Score Final: " + frame.getScore());
+        StdDraw.text(0.5, 0.4, "Appuyez sur R pour recommencer");
+        StdDraw.text(0.5, 0.35, "ou Échap pour quitter");
+    }
+    
+    /**
+     * Dessine l'écran de niveau complété
+     */
+    private void drawLevelComplete(FrameSnapshot frame) {
+        StdDraw.setPenColor(Color.YELLOW);
+        StdDraw.setFont(LEVEL_FONT);
+        StdDraw.text(0.5, 0.5, "NIVEAU " + frame.getLevel() + " COMPLÉTÉ!");
+        
+        StdDraw.setPenColor(Color.WHITE);
+        StdDraw.setFont(TEXT_FONT);
+        StdDraw.text(0.5, 0.4, "Chargement du niveau suivant...");
+    }
+    
+    /**
+     * Dessine l'écran de victoire
+     */
+    private void drawVictory(FrameSnapshot frame) {
+        StdDraw.setPenColor(Color.GREEN);
+        StdDraw.setFont(HEADING_FONT);
+        StdDraw.text(0.5, 0.6, "VICTOIRE!");
+        
+        StdDraw.setPenColor(Color.WHITE);
+        StdDraw.setFont(TEXT_FONT);
+        StdDraw.text(0.5, 0.5, "Score Final: " + frame.getScore());
+        StdDraw.text(0.5, 0.4, "Tous les niveaux complétés!");
+        StdDraw.text(0.5, 0.35, "Appuyez sur R pour recommencer");
+    }
+
+    /**
+     * Retourne le nombre de fois où l'interface a été redessinée
+     *
+     * @return nombre de rendus du calque de l'interface
+     */
+    int getHudRenderCount() {
+        return hudLayer.getRenderCount();
+    }
+
+    /**
+     * Retourne le nombre de fois où un plan du fond étoilé a été redessiné
+     *
+     * @return nombre de rendus des calques du fond
+     */
+    int getStarfieldRenderCount() {
+        return starfield.getRenderCount();
+    }
+
+    /**
+     * Retourne le nombre de fois où un écran fixe a été redessiné
+     *
+     * @return nombre de rendus du calque des écrans
+     */
+    int getScreenRenderCount() {
+        return screenLayer.getRenderCount();
+    }
+}
@@ -0,0 +1,162 @@
+package game;
+
+import game.actors.Enemy;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grille uniforme de hachage spatial pour les collisions projectiles /
+ * ennemis. Elle est reconstruite à chaque mise à jour à partir des positions
+ * et des rayons des ennemis : la taille d'une case est le plus grand
+ * diamètre, si bien qu'un ennemi couvre au plus quatre cases et qu'un point
+ * n'a à tester que les ennemis de sa case. Les cases sont rangées par
+ * comptage dans des tableaux réutilisés : la reconstruction n'alloue rien
+ * une fois les tableaux à la bonne taille.
+ */
+class SpatialHash {
+    private Enemy[] enemies = new Enemy[64]; // ennemis actifs au moment de la construction
+    private double[] x = new double[64]; // centres x
+    private double[] y = new double[64]; // centres y
+    private double[] radius = new double[64]; // rayons
+    private double[] radiusSquared = new double[64]; // carrés des rayons
+    private int count; // nombre d'ennemis rangés
+
+    private int[] cellStart = new int[129]; // début de chaque alvéole dans items (+ fin de la dernière)
+    private int[] items = new int[256]; // index des ennemis, groupés par alvéole et dans l'ordre de la liste
+    private int mask; // nombre d'alvéoles - 1 (puissance de deux)
+    private double inverseCell; // inverse de la taille d'une case
+    private long candidates; // ennemis testés par les requêtes
+    private long queries; // requêtes effectuées
+
+    /**
+     * Range les ennemis actifs dans la grille
+     *
+     * @param list ennemis du jeu
+     */
+    void build(List<Enemy> list) {
+        if (list.size() > enemies.length) {
+            int capacity = Math.max(list.size(), 2 * enemies.length);
+            enemies = new Enemy[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            radius = new double[capacity];
+            radiusSquared = new double[capacity];
+        }
+        count = 0;
+        double cell = 0;
+        for (Enemy enemy : list) {
+            if (!enemy.isActive()) {
+                continue;
+            }
+            double r = enemy.getLength() / 2;
+            enemies[count] = enemy;
+            x[count] = enemy.getX();
+            y[count] = enemy.getY();
+            radius[count] = r;
+            radiusSquared[count] = r * r;
+            cell = Math.max(cell, 2 * r);
+            count++;
+        }
+        Arrays.fill(enemies, count, enemies.length, null); // pas de référence aux ennemis disparus
+        if (count == 0 || cell == 0) {
+            count = 0;
+            return;
+        }
+        inverseCell = 1 / cell;
+
+        // Environ deux alvéoles par ennemi
+        int buckets = Integer.highestOneBit(Math.max(1, 2 * count - 1)) << 1;
+        if (cellStart.length < buckets + 1) {
+            cellStart = new int[buckets + 1];
+        }
+        mask = buckets - 1;
+        if (items.length < 4 * count) {
+            items = new int[4 * count];
+        }
+
+        // Tri par comptage : on compte, on cumule (fin de chaque alvéole), puis
+        // on range à rebours en reculant jusqu'au début de chaque alvéole
+        Arrays.fill(cellStart, 0, buckets + 1, 0);
+        for (int i = 0; i < count; i++) {
+            forEachCell(i, true);
+        }
+        for (int b = 1; b < buckets; b++) {
+            cellStart[b] += cellStart[b - 1];
+        }
+        cellStart[buckets] = cellStart[buckets - 1];
+        for (int i = count - 1; i >= 0; i--) { // à rebours : chaque alvéole reste dans l'ordre de la liste
+            forEachCell(i, false);
+        }
+    }
+
+    /**
+     * Compte (ou range) un ennemi dans les cases qu'il couvre. Deux cases
+     * couvertes qui tombent dans la même alvéole n'y sont comptées qu'une fois.
+     */
+    private void forEachCell(int i, boolean counting) {
+        int firstX = (int) Math.floor((x[i] - radius[i]) * inverseCell);
+        int firstY = (int) Math.floor((y[i] - radius[i]) * inverseCell);
+        int lastX = (int) Math.floor((x[i] + radius[i]) * inverseCell);
+        int lastY = (int) Math.floor((y[i] + radius[i]) * inverseCell);
+        int previous0 = -1;
+        int previous1 = -1;
+        int previous2 = -1;
+        for (int gx = firstX; gx <= lastX; gx++) {
+            for (int gy = firstY; gy <= lastY; gy++) {
+                int bucket = bucket(gx, gy);
+                if (bucket == previous0 || bucket == previous1 || bucket == previous2) {
+                    continue;
+                }
+                previous2 = previous1;
+                previous1 = previous0;
+                previous0 = bucket;
+                if (counting) {
+                    cellStart[bucket]++;
+                } else {
+                    items[--cellStart[bucket]] = i;
+                }
+            }
+        }
+    }
+
+    private int bucket(int cx, int cy) {
+        int h = cx * 0x9E3779B1 ^ cy * 0x85EBCA6B;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    /**
+     * Retourne le premier ennemi encore actif (dans l'ordre de la liste du
+     * jeu) dont le disque contient un point
+     *
+     * @param px position x du point
+     * @param py position y du point
+     * @return l'ennemi touché, ou null
+     */
+    Enemy firstHit(double px, double py) {
+        queries++;
+        if (count == 0) {
+            return null;
+        }
+        int bucket = bucket((int) Math.floor(px * inverseCell), (int) Math.floor(py * inverseCell));
+        int end = cellStart[bucket + 1];
+        for (int k = cellStart[bucket]; k < end; k++) {
+            int i = items[k];
+            candidates++;
+            double dx = x[i] - px;
+            double dy = y[i] - py;
+            if (dx * dx + dy * dy < radiusSquared[i] && enemies[i].isActive()) {
+                return enemies[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retourne le nombre moyen d'ennemis testés par requête
+     *
+     * @return candidats par requête
+     */
+    double getCandidatesPerQuery() {
+        return queries == 0 ? 0 : (double) candidates / queries;
+    }
+}
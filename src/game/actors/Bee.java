@@ -1,5 +1,7 @@
 package game.actors;
 
+import java.util.SplittableRandom;
+
 /**
  * Classe représentant un ennemi de type Bee (abeille).
  * C'est l'ennemi de base avec un mouvement simple.
@@ -16,10 +18,11 @@ public class Bee extends Enemy {
      * @param length taille
      * @param scoreValue points gagnés (100)
      * @param speed vitesse de déplacement
+     * @param random générateur aléatoire du jeu
      */
-    public Bee(double x, double y, double length, int scoreValue, double speed) {
-        super(x, y, length, scoreValue, speed);
-        this.sprite = new Sprite("ressources/sprites/bee.spr");
+    public Bee(double x, double y, double length, int scoreValue, double speed, SplittableRandom random) {
+        super(x, y, length, scoreValue, speed, random);
+        this.sprite = SpriteRegistry.get("ressources/sprites/bee.spr");
         this.initialX = x;
         this.movementOffset = 0;
     }
@@ -38,6 +41,9 @@ public class Bee extends Enemy {
         // Descente lente
         y -= speed / 4;
         
+        // Animer et orienter le sprite
+        animate();
+        
         // Tenter de tirer
         tryShoot();
         
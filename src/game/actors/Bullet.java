@@ -9,6 +9,8 @@ import java.awt.Color;
 public class Bullet {
     private double x; // position x du projectile
     private double y; // position y du projectile
+    private double previousX; // position x au début de la dernière mise à jour
+    private double previousY; // position y au début de la dernière mise à jour
     private double speed; // vitesse de déplacement
     private double width; // largeur du projectile
     private double height; // hauteur du projectile
@@ -24,6 +26,8 @@ public class Bullet {
     public Bullet(double x, double y, double speed) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.speed = speed;
         this.width = 0.005; // Projectile fin
         this.height = 0.02; // Projectile allongé
@@ -34,6 +38,8 @@ public class Bullet {
      * Met à jour la position du projectile
      */
     public void update() {
+        previousX = x;
+        previousY = y;
         y += speed; // Le projectile monte
         
         // Désactive le projectile s'il sort de l'écran
@@ -43,13 +49,16 @@ public class Bullet {
     }
 
     /**
-     * Dessine le projectile
+     * Dessine un projectile du joueur à la position donnée
+     * 
+     * @param x position x du centre
+     * @param y position y du centre
+     * @param width demi-largeur
+     * @param height demi-hauteur
      */
-    public void draw() {
-        if (active) {
-            StdDraw.setPenColor(Color.YELLOW);
-            StdDraw.filledRectangle(x, y, width, height);
-        }
+    public static void draw(double x, double y, double width, double height) {
+        StdDraw.setPenColor(Color.YELLOW);
+        StdDraw.filledRectangle(x, y, width, height);
     }
 
     /**
@@ -86,6 +95,24 @@ public class Bullet {
         return y;
     }
 
+    /**
+     * Retourne la position x au début de la dernière mise à jour
+     * 
+     * @return position x précédente
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * Retourne la position y au début de la dernière mise à jour
+     * 
+     * @return position y précédente
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+
     /**
      * Retourne la largeur du projectile
      * 
@@ -1,5 +1,7 @@
 package game.actors;
 
+import java.util.SplittableRandom;
+
 /**
  * Classe représentant un ennemi de type Butterfly (papillon).
  * Ennemi de difficulté moyenne avec un mouvement plus rapide.
@@ -16,10 +18,11 @@ public class Butterfly extends Enemy {
      * @param length taille
      * @param scoreValue points gagnés (200)
      * @param speed vitesse de déplacement
+     * @param random générateur aléatoire du jeu
      */
-    public Butterfly(double x, double y, double length, int scoreValue, double speed) {
-        super(x, y, length, scoreValue, speed);
-        this.sprite = new Sprite("ressources/sprites/butterfly.spr");
+    public Butterfly(double x, double y, double length, int scoreValue, double speed, SplittableRandom random) {
+        super(x, y, length, scoreValue, speed, random);
+        this.sprite = SpriteRegistry.get("ressources/sprites/butterfly.spr");
         this.initialX = x;
         this.movementOffset = 0;
     }
@@ -38,6 +41,9 @@ public class Butterfly extends Enemy {
         // Descente modérée
         y -= speed / 3;
         
+        // Animer et orienter le sprite
+        animate();
+        
         // Tenter de tirer
         tryShoot();
         
@@ -1,10 +1,14 @@
 package game.actors;
 
+import java.util.SplittableRandom;
+
 /**
  * Classe abstraite représentant un ennemi dans le jeu.
  * Tous les types d'ennemis héritent de cette classe.
  */
 public abstract class Enemy {
+    private static final int ANIMATION_PERIOD = 8; // mises à jour par image d'animation
+    
     protected double x; // position x de l'ennemi
     protected double y; // position y de l'ennemi
     protected double length; // taille de l'ennemi
@@ -15,6 +19,13 @@ public abstract class Enemy {
     protected boolean active; // indique si l'ennemi est actif
     protected game.Game game; // référence au jeu principal
     protected int shootCooldown; // temps avant de pouvoir tirer à nouveau
+    protected final SplittableRandom random; // tirages de l'ennemi (générateur du jeu)
+    protected double heading; // rotation du sprite vers la direction du mouvement (radians)
+    private double previousX; // position x au début de la dernière mise à jour
+    private double previousY; // position y au début de la dernière mise à jour
+    private double lastX; // position x à la fin de la dernière mise à jour
+    private double lastY; // position y à la fin de la dernière mise à jour
+    private int animationTicks; // mises à jour depuis la création
     
     /**
      * Constructeur d'un ennemi
@@ -24,17 +35,23 @@ public abstract class Enemy {
      * @param length taille de l'ennemi
      * @param scoreValue points gagnés
      * @param speed vitesse de déplacement
+     * @param random générateur aléatoire du jeu
      */
-    public Enemy(double x, double y, double length, int scoreValue, double speed) {
+    public Enemy(double x, double y, double length, int scoreValue, double speed, SplittableRandom random) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
+        this.lastX = x;
+        this.lastY = y;
         this.length = length;
         this.scoreValue = scoreValue;
         this.speed = speed;
         this.health = 1; // Par défaut, un seul coup suffit
         this.active = true;
         this.game = null;
-        this.shootCooldown = (int)(Math.random() * 200) + 100; // Cooldown aléatoire
+        this.random = random;
+        this.shootCooldown = random.nextInt(200) + 100; // Cooldown aléatoire
     }
     
     /**
@@ -52,12 +69,21 @@ public abstract class Enemy {
     public abstract void update();
     
     /**
-     * Dessine l'ennemi
+     * Avance l'animation et oriente le sprite dans la direction du
+     * mouvement depuis la mise à jour précédente (à appeler après chaque
+     * déplacement)
      */
-    public void draw() {
-        if (active && sprite != null) {
-            sprite.draw(x, y, length);
+    protected void animate() {
+        previousX = lastX;
+        previousY = lastY;
+        double dx = x - previousX;
+        double dy = y - previousY;
+        if (dx != 0 || dy != 0) {
+            heading = Math.atan2(dx, -dy); // 0 = sprite droit, qui descend
         }
+        lastX = x;
+        lastY = y;
+        animationTicks++;
     }
     
     /**
@@ -104,6 +130,22 @@ public abstract class Enemy {
         return y;
     }
     
+    /**
+     * Retourne la position x au début de la dernière mise à jour
+     * @return position x précédente
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+    
+    /**
+     * Retourne la position y au début de la dernière mise à jour
+     * @return position y précédente
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+    
     /**
      * Retourne la taille
      * @return taille
@@ -112,6 +154,23 @@ public abstract class Enemy {
         return length;
     }
     
+    /**
+     * Retourne le sprite de l'ennemi
+     * @return sprite
+     */
+    public Sprite getSprite() {
+        return sprite;
+    }
+    
+    /**
+     * Retourne la région précalculée du sprite à afficher (image
+     * d'animation et angle courants)
+     * @return index de la région
+     */
+    public int getSpriteRegion() {
+        return sprite.getRegion(animationTicks / ANIMATION_PERIOD, heading);
+    }
+    
     /**
      * Retourne la valeur en points
      * @return score
@@ -128,8 +187,9 @@ public abstract class Enemy {
      * @return true si collision
      */
     public boolean collidesWith(double px, double py) {
-        double distance = Math.sqrt(Math.pow(x - px, 2) + Math.pow(y - py, 2));
-        return distance < length / 2;
+        double dx = x - px;
+        double dy = y - py;
+        return dx * dx + dy * dy < length * length / 4; // distances au carré : pas de racine
     }
     
     /**
@@ -137,10 +197,10 @@ public abstract class Enemy {
      */
     protected void tryShoot() {
         shootCooldown--;
-        if (shootCooldown <= 0 && game != null && Math.random() < 0.01) {
+        if (shootCooldown <= 0 && game != null && random.nextDouble() < 0.01) {
             EnemyBullet bullet = new EnemyBullet(x, y - length / 2, 0.008);
             game.addEnemyBullet(bullet);
-            shootCooldown = (int)(Math.random() * 300) + 150;
+            shootCooldown = random.nextInt(300) + 150;
         }
     }
 }
@@ -9,6 +9,8 @@ import java.awt.Color;
 public class EnemyBullet {
     private double x; // position x du projectile
     private double y; // position y du projectile
+    private double previousX; // position x au début de la dernière mise à jour
+    private double previousY; // position y au début de la dernière mise à jour
     private double speed; // vitesse de déplacement
     private double width; // largeur du projectile
     private double height; // hauteur du projectile
@@ -24,6 +26,8 @@ public class EnemyBullet {
     public EnemyBullet(double x, double y, double speed) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.speed = speed;
         this.width = 0.004;
         this.height = 0.015;
@@ -34,6 +38,8 @@ public class EnemyBullet {
      * Met à jour la position du projectile
      */
     public void update() {
+        previousX = x;
+        previousY = y;
         y -= speed; // Le projectile descend
         
         // Désactive le projectile s'il sort de l'écran
@@ -43,13 +49,16 @@ public class EnemyBullet {
     }
 
     /**
-     * Dessine le projectile
+     * Dessine un projectile ennemi à la position donnée
+     * 
+     * @param x position x du centre
+     * @param y position y du centre
+     * @param width demi-largeur
+     * @param height demi-hauteur
      */
-    public void draw() {
-        if (active) {
-            StdDraw.setPenColor(Color.RED);
-            StdDraw.filledRectangle(x, y, width, height);
-        }
+    public static void draw(double x, double y, double width, double height) {
+        StdDraw.setPenColor(Color.RED);
+        StdDraw.filledRectangle(x, y, width, height);
     }
 
     /**
@@ -86,6 +95,24 @@ public class EnemyBullet {
         return y;
     }
 
+    /**
+     * Retourne la position x au début de la dernière mise à jour
+     * 
+     * @return position x précédente
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * Retourne la position y au début de la dernière mise à jour
+     * 
+     * @return position y précédente
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+
     /**
      * Retourne la largeur du projectile
      * 
@@ -1,5 +1,7 @@
 package game.actors;
 
+import java.util.SplittableRandom;
+
 /**
  * Classe représentant un ennemi de type Moth (mite/catcher).
  * C'est l'ennemi le plus difficile avec le plus de points.
@@ -16,10 +18,11 @@ public class Moth extends Enemy {
      * @param length taille
      * @param scoreValue points gagnés (300)
      * @param speed vitesse de déplacement
+     * @param random générateur aléatoire du jeu
      */
-    public Moth(double x, double y, double length, int scoreValue, double speed) {
-        super(x, y, length, scoreValue, speed);
-        this.sprite = new Sprite("ressources/sprites/catcher.spr");
+    public Moth(double x, double y, double length, int scoreValue, double speed, SplittableRandom random) {
+        super(x, y, length, scoreValue, speed, random);
+        this.sprite = SpriteRegistry.get("ressources/sprites/catcher.spr");
         this.initialX = x;
         this.movementOffset = 0;
     }
@@ -38,6 +41,9 @@ public class Moth extends Enemy {
         // Descente très lente
         y -= speed / 6;
         
+        // Animer et orienter le sprite
+        animate();
+        
         // Tenter de tirer
         tryShoot();
         
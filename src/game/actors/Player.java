@@ -1,6 +1,6 @@
 package game.actors;
 
-import engine.StdDraw;
+import game.InputState;
 
 /**
  * Classe représentant le joueur.
@@ -10,10 +10,11 @@ import engine.StdDraw;
 public class Player {
     private double x; // postion du joueur sur l'axe des abscisses
     private double y; // position du joueur sur l'axe des ordonnées
+    private double previousX; // position x au début de la dernière mise à jour
+    private double previousY; // position y au début de la dernière mise à jour
     private double length; // largeur du joueur
     private Sprite sprite; // sprite du vaisseau
     private int lives; // nombre de vies du joueur
-    private boolean canShoot; // indique si le joueur peut tirer
     private game.Game game; // référence au jeu principal
 
     /**
@@ -26,10 +27,11 @@ public class Player {
     public Player(double x, double y, double length) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.length = length;
-        this.sprite = new Sprite("ressources/sprites/ship.spr");
+        this.sprite = SpriteRegistry.get("ressources/sprites/ship.spr");
         this.lives = 3;
-        this.canShoot = true;
         this.game = null; // Sera défini plus tard
     }
     
@@ -42,25 +44,22 @@ public class Player {
         this.game = game;
     }
 
-    /**
-     * Dessine le joueur avec son sprite
-     */
-    public void draw() {
-        sprite.draw(x, y, length);
-    }
-
     /**
      * Met à jour la position du joueur en fonction des touches préssées.
+     * 
+     * @param input les commandes de la mise à jour
      */
-    public void update() {
+    public void update(InputState input) {
         double speed = 0.01; // vitesse de déplacement du joueur
+        previousX = x;
+        previousY = y;
         
         // Si la flèche gauche est préssée
-        if (StdDraw.isKeyPressed(37)) { 
+        if (input.isHeld(InputState.LEFT)) {
             x -= speed;
         }
         // Si la flèche droite est préssée
-        if (StdDraw.isKeyPressed(39)) {
+        if (input.isHeld(InputState.RIGHT)) {
             x += speed;
         }
         
@@ -78,14 +77,9 @@ public class Player {
             y = 1 - length / 2;
         }
         
-        // Gestion du tir avec la barre d'espace (code 32)
-        if (StdDraw.isKeyPressed(32)) {
-            if (canShoot) {
-                shoot();
-                canShoot = false;
-            }
-        } else {
-            canShoot = true; // Peut tirer à nouveau quand la touche est relâchée
+        // Un tir par appui sur la barre d'espace, même bref entre deux mises à jour
+        if (input.wasPressed(InputState.FIRE)) {
+            shoot();
         }
     }
     
@@ -116,6 +110,22 @@ public class Player {
         return y;
     }
     
+    /**
+     * Retourne la position x au début de la dernière mise à jour
+     * @return position x précédente
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+    
+    /**
+     * Retourne la position y au début de la dernière mise à jour
+     * @return position y précédente
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+    
     /**
      * Retourne la taille du joueur
      * @return taille
@@ -124,6 +134,14 @@ public class Player {
         return length;
     }
     
+    /**
+     * Retourne le sprite du joueur
+     * @return sprite
+     */
+    public Sprite getSprite() {
+        return sprite;
+    }
+    
     /**
      * Retourne le nombre de vies du joueur
      * @return nombre de vies
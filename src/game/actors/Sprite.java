@@ -1,21 +1,35 @@
 package game.actors;
 
-import engine.StdDraw;
 import java.awt.Color;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Classe représentant un sprite chargé depuis un fichier .spr
- * Les sprites sont des grilles de caractères représentant des pixels colorés
+ * Les sprites sont des grilles de caractères représentant des pixels colorés.
+ * Un fichier peut contenir plusieurs images d'animation, séparées par une
+ * ligne vide.
+ * La grille est immuable : une même instance peut être partagée par tous
+ * les acteurs d'un même type (voir {@link SpriteRegistry}).
+ * À l'affichage, le sprite n'est qu'un rectangle source dans l'atlas
+ * de textures partagé (voir {@link SpriteAtlas}). Chaque image d'animation
+ * y est aussi présente tournée selon {@link #ROTATION_STEPS} angles,
+ * calculés une seule fois : dessiner un sprite tourné et animé ne coûte
+ * qu'une recherche dans une table et une copie.
  */
 public class Sprite {
-    private char[][] grid; // Grille de caractères représentant le sprite
-    private int width; // Largeur du sprite
-    private int height; // Hauteur du sprite
+    public static final int ROTATION_STEPS = 16; // nombre d'angles précalculés par image
+
+    private final char[][][] frames; // Grilles de caractères de chaque image d'animation
+    private final int width; // Largeur du sprite
+    private final int height; // Hauteur du sprite
+    private final int cellSize; // Côté des cases tournées (diagonale du sprite)
+    private final int[] atlasX; // Positions x des régions dans l'atlas
+    private final int[] atlasY; // Positions y des régions dans l'atlas
 
     /**
      * Charge un sprite depuis un fichier .spr
@@ -23,78 +37,240 @@ public class Sprite {
      * @param filename le chemin du fichier sprite relatif au répertoire ressources
      */
     public Sprite(String filename) {
-        loadSprite(filename);
+        frames = loadSprite(filename);
+        height = frames[0].length;
+        width = frames[0][0].length;
+        cellSize = (int) Math.ceil(Math.sqrt(width * width + height * height));
+        atlasX = new int[getRegionCount()];
+        atlasY = new int[getRegionCount()];
+        SpriteAtlas.register(this);
     }
 
     /**
-     * Charge le sprite depuis un fichier
+     * Charge les grilles du sprite depuis un fichier. Les images suivant la
+     * première sont ramenées à ses dimensions.
      * 
      * @param filename le chemin du fichier sprite
+     * @return les grilles de caractères (un seul pixel transparent en cas d'erreur)
      */
-    private void loadSprite(String filename) {
-        List<String> lines = new ArrayList<>();
+    private static char[][][] loadSprite(String filename) {
+        List<List<String>> blocks = new ArrayList<>();
         
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            List<String> lines = new ArrayList<>();
             String line;
             while ((line = reader.readLine()) != null) {
-                lines.add(line);
+                if (line.trim().isEmpty()) {
+                    if (!lines.isEmpty()) {
+                        blocks.add(lines); // ligne vide : fin de l'image
+                        lines = new ArrayList<>();
+                    }
+                } else {
+                    lines.add(line);
+                }
+            }
+            if (!lines.isEmpty()) {
+                blocks.add(lines);
             }
         } catch (IOException e) {
             System.err.println("Erreur lors du chargement du sprite: " + filename);
             e.printStackTrace();
             // Créer un sprite vide en cas d'erreur
-            grid = new char[1][1];
-            grid[0][0] = 'N';
-            width = 1;
-            height = 1;
-            return;
+            return new char[][][] { { { 'N' } } };
         }
 
-        if (lines.isEmpty()) {
-            grid = new char[1][1];
-            grid[0][0] = 'N';
-            width = 1;
-            height = 1;
-            return;
+        if (blocks.isEmpty()) {
+            return new char[][][] { { { 'N' } } };
         }
 
-        height = lines.size();
-        width = lines.get(0).length();
-        grid = new char[height][width];
+        int height = blocks.get(0).size();
+        int width = blocks.get(0).get(0).length();
+        char[][][] frames = new char[blocks.size()][height][width];
 
-        for (int i = 0; i < height; i++) {
-            String line = lines.get(i);
-            for (int j = 0; j < Math.min(width, line.length()); j++) {
-                grid[i][j] = line.charAt(j);
+        for (int f = 0; f < frames.length; f++) {
+            List<String> lines = blocks.get(f);
+            for (int i = 0; i < height; i++) {
+                Arrays.fill(frames[f][i], 'N');
+                if (i < lines.size()) {
+                    String line = lines.get(i);
+                    for (int j = 0; j < Math.min(width, line.length()); j++) {
+                        frames[f][i][j] = line.charAt(j);
+                    }
+                }
             }
         }
+        return frames;
     }
 
     /**
-     * Dessine le sprite à la position donnée avec la taille spécifiée
+     * Dessine la première image du sprite, droite, à la position donnée avec
+     * la taille spécifiée.
+     * Le dessin est une seule copie de la région du sprite dans l'atlas.
      * 
      * @param x      position x du centre du sprite (entre 0 et 1)
      * @param y      position y du centre du sprite (entre 0 et 1)
      * @param size   taille du sprite (largeur totale entre 0 et 1)
      */
     public void draw(double x, double y, double size) {
-        double pixelSize = size / width; // Taille d'un pixel du sprite
-        
-        // Position de départ (coin supérieur gauche)
-        double startX = x - size / 2;
-        double startY = y + (height * pixelSize) / 2;
-
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                char pixel = grid[i][j];
-                if (pixel != 'N') { // N = transparent
-                    StdDraw.setPenColor(getColor(pixel));
-                    double px = startX + j * pixelSize + pixelSize / 2;
-                    double py = startY - i * pixelSize - pixelSize / 2;
-                    StdDraw.filledSquare(px, py, pixelSize / 2);
+        draw(x, y, size, 0);
+    }
+
+    /**
+     * Dessine une région précalculée du sprite (voir {@link #getRegion(int, double)}).
+     * Le dessin est une seule copie depuis l'atlas, sans rotation à l'exécution.
+     * 
+     * @param x      position x du centre du sprite (entre 0 et 1)
+     * @param y      position y du centre du sprite (entre 0 et 1)
+     * @param size   taille du sprite non tourné (largeur totale entre 0 et 1)
+     * @param region index de la région (image d'animation et angle)
+     */
+    public void draw(double x, double y, double size, int region) {
+        if (region % ROTATION_STEPS == 0) {
+            SpriteAtlas.draw(this, region, x, y, size, size * height / width);
+        } else {
+            double cell = getRotatedSize(size); // la case tournée déborde du sprite droit
+            SpriteAtlas.draw(this, region, x, y, cell, cell);
+        }
+    }
+
+    /**
+     * Retourne le côté du carré qui contient le sprite sous tous les angles
+     * 
+     * @param size taille du sprite non tourné (largeur totale entre 0 et 1)
+     * @return côté du carré (entre 0 et 1)
+     */
+    public double getRotatedSize(double size) {
+        return size * cellSize / width;
+    }
+
+    /**
+     * Retourne la région de l'atlas correspondant à une image d'animation
+     * et à un angle, arrondi à l'angle précalculé le plus proche
+     * 
+     * @param frame numéro de l'image d'animation (pris modulo le nombre d'images)
+     * @param angle rotation en radians, dans le sens trigonométrique
+     * @return index de la région
+     */
+    public int getRegion(int frame, double angle) {
+        int step = (int) Math.round(angle * ROTATION_STEPS / (2 * Math.PI));
+        return Math.floorMod(frame, frames.length) * ROTATION_STEPS + Math.floorMod(step, ROTATION_STEPS);
+    }
+
+    /**
+     * Retourne le nombre d'images d'animation
+     * 
+     * @return nombre d'images
+     */
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * Retourne le nombre de régions du sprite dans l'atlas
+     * 
+     * @return nombre d'images multiplié par le nombre d'angles
+     */
+    int getRegionCount() {
+        return frames.length * ROTATION_STEPS;
+    }
+
+    /**
+     * Retourne la largeur d'une région dans l'atlas
+     * 
+     * @param region index de la région
+     * @return largeur en pixels
+     */
+    int getRegionWidth(int region) {
+        return region % ROTATION_STEPS == 0 ? width : cellSize;
+    }
+
+    /**
+     * Retourne la hauteur d'une région dans l'atlas
+     * 
+     * @param region index de la région
+     * @return hauteur en pixels
+     */
+    int getRegionHeight(int region) {
+        return region % ROTATION_STEPS == 0 ? height : cellSize;
+    }
+
+    /**
+     * Calcule les pixels ARGB d'une région (0 = transparent). Les régions
+     * tournées sont échantillonnées au plus proche voisin, une seule fois,
+     * pour garder des pixels nets.
+     * 
+     * @param region index de la région
+     * @return les pixels de la région, ligne par ligne
+     */
+    int[] toArgb(int region) {
+        char[][] grid = frames[region / ROTATION_STEPS];
+        int step = region % ROTATION_STEPS;
+        if (step == 0) {
+            int[] argb = new int[width * height];
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    argb[i * width + j] = toArgb(grid[i][j]);
+                }
+            }
+            return argb;
+        }
+
+        // Rotation inverse : pour chaque pixel de la case, le pixel source du sprite droit
+        double angle = 2 * Math.PI * step / ROTATION_STEPS;
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double center = cellSize / 2.0;
+        int[] argb = new int[cellSize * cellSize];
+        for (int i = 0; i < cellSize; i++) {
+            double dy = center - (i + 0.5); // vers le haut de l'écran
+            for (int j = 0; j < cellSize; j++) {
+                double dx = j + 0.5 - center;
+                double ux = cos * dx + sin * dy;
+                double uy = -sin * dx + cos * dy;
+                int sj = (int) Math.floor(ux + width / 2.0);
+                int si = (int) Math.floor(height / 2.0 - uy);
+                if (si >= 0 && si < height && sj >= 0 && sj < width) {
+                    argb[i * cellSize + j] = toArgb(grid[si][sj]);
                 }
             }
         }
+        return argb;
+    }
+
+    private int toArgb(char pixel) {
+        return pixel == 'N' ? 0 : getColor(pixel).getRGB(); // N = transparent
+    }
+
+    /**
+     * Définit la position d'une région dans l'atlas
+     * 
+     * @param region index de la région
+     * @param x      position x en pixels
+     * @param y      position y en pixels
+     */
+    void setAtlasPosition(int region, int x, int y) {
+        atlasX[region] = x;
+        atlasY[region] = y;
+    }
+
+    /**
+     * Retourne la position x d'une région dans l'atlas
+     * 
+     * @param region index de la région
+     * @return position x en pixels
+     */
+    int getAtlasX(int region) {
+        return atlasX[region];
+    }
+
+    /**
+     * Retourne la position y d'une région dans l'atlas
+     * 
+     * @param region index de la région
+     * @return position y en pixels
+     */
+    int getAtlasY(int region) {
+        return atlasY[region];
     }
 
     /**
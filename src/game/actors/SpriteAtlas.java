@@ -0,0 +1,195 @@
+package game.actors;
+
+import engine.StdDraw;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Atlas de textures regroupant tous les sprites dans une seule image.
+ * Chaque sprite n'y occupe qu'un rectangle source : tous les dessins de
+ * sprites sont ainsi des copies depuis une même surface, qui peut rester
+ * en mémoire accélérée.
+ */
+public final class SpriteAtlas {
+    // Sprites du jeu, empaquetés dès le démarrage
+    private static final String[] DEFAULT_SPRITES = {
+        "ressources/sprites/ship.spr",
+        "ressources/sprites/bee.spr",
+        "ressources/sprites/butterfly.spr",
+        "ressources/sprites/catcher.spr",
+        "ressources/sprites/level.spr"
+    };
+    private static final int PADDING = 1; // marge transparente entre deux sprites
+
+    private static final List<Sprite> sprites = new ArrayList<>(); // sprites présents dans l'atlas
+    private static volatile boolean dirty = true; // l'atlas doit être reconstruit
+    private static BufferedImage image; // image de l'atlas
+    private static long buildTimeNanos; // durée de la dernière construction
+    private static int builds; // nombre de constructions
+    private static final AtomicLong blits = new AtomicLong(); // nombre de copies effectuées
+
+    /**
+     * Classe utilitaire : pas d'instance
+     */
+    private SpriteAtlas() {
+    }
+
+    /**
+     * Charge les sprites du jeu et construit l'atlas
+     */
+    public static void build() {
+        for (String filename : DEFAULT_SPRITES) {
+            SpriteRegistry.get(filename);
+        }
+        ensureBuilt();
+    }
+
+    /**
+     * Ajoute un sprite à l'atlas. L'atlas sera reconstruit au prochain dessin.
+     *
+     * @param sprite le sprite à ajouter
+     */
+    static synchronized void register(Sprite sprite) {
+        sprites.add(sprite);
+        dirty = true;
+    }
+
+    /**
+     * Dessine une région d'un sprite en une seule copie depuis l'atlas
+     *
+     * @param sprite le sprite à dessiner
+     * @param region index de la région (image d'animation et angle)
+     * @param x      position x du centre
+     * @param y      position y du centre
+     * @param w      largeur à l'écran (entre 0 et 1)
+     * @param h      hauteur à l'écran (entre 0 et 1)
+     */
+    static void draw(Sprite sprite, int region, double x, double y, double w, double h) {
+        BufferedImage atlas = ensureBuilt();
+        StdDraw.image(x, y, w, h, atlas, sprite.getAtlasX(region), sprite.getAtlasY(region),
+                sprite.getRegionWidth(region), sprite.getRegionHeight(region));
+        blits.incrementAndGet();
+    }
+
+    /**
+     * Reconstruit l'atlas si un sprite a été ajouté depuis la dernière construction
+     *
+     * @return l'image de l'atlas
+     */
+    private static BufferedImage ensureBuilt() {
+        if (dirty) {
+            synchronized (SpriteAtlas.class) {
+                if (dirty) {
+                    pack();
+                    dirty = false;
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Empaquète les régions des sprites (images d'animation et angles) par
+     * étagères, de la plus haute à la plus basse, puis recopie leurs pixels
+     * dans une nouvelle image
+     */
+    private static void pack() {
+        long start = System.nanoTime();
+
+        // Une entrée par région : {index du sprite, index de la région}
+        List<int[]> regions = new ArrayList<>();
+        for (int s = 0; s < sprites.size(); s++) {
+            for (int r = 0; r < sprites.get(s).getRegionCount(); r++) {
+                regions.add(new int[] { s, r });
+            }
+        }
+        regions.sort((a, b) -> height(b) - height(a));
+
+        int area = 0;
+        for (int[] region : regions) {
+            area += (width(region) + PADDING) * (height(region) + PADDING);
+        }
+        int atlasWidth = 16;
+        while (atlasWidth * atlasWidth < area) {
+            atlasWidth *= 2;
+        }
+        for (int[] region : regions) {
+            while (atlasWidth < width(region) + PADDING) {
+                atlasWidth *= 2;
+            }
+        }
+
+        // Placement des régions sur des étagères successives
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (int[] region : regions) {
+            if (shelfX + width(region) + PADDING > atlasWidth) {
+                shelfX = 0;
+                shelfY += shelfHeight;
+                shelfHeight = 0;
+            }
+            sprites.get(region[0]).setAtlasPosition(region[1], shelfX, shelfY);
+            shelfX += width(region) + PADDING;
+            shelfHeight = Math.max(shelfHeight, height(region) + PADDING);
+        }
+        int atlasHeight = Math.max(1, shelfY + shelfHeight);
+
+        BufferedImage atlas = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+        for (int[] region : regions) {
+            Sprite sprite = sprites.get(region[0]);
+            int w = width(region);
+            atlas.setRGB(sprite.getAtlasX(region[1]), sprite.getAtlasY(region[1]), w, height(region),
+                    sprite.toArgb(region[1]), 0, w);
+        }
+        image = atlas;
+        builds++;
+        buildTimeNanos = System.nanoTime() - start;
+    }
+
+    private static int width(int[] region) {
+        return sprites.get(region[0]).getRegionWidth(region[1]);
+    }
+
+    private static int height(int[] region) {
+        return sprites.get(region[0]).getRegionHeight(region[1]);
+    }
+
+    /**
+     * Retourne la durée de la dernière construction de l'atlas
+     *
+     * @return durée en nanosecondes
+     */
+    public static long getBuildTimeNanos() {
+        return buildTimeNanos;
+    }
+
+    /**
+     * Retourne le nombre de constructions de l'atlas
+     *
+     * @return nombre de constructions
+     */
+    public static int getBuildCount() {
+        return builds;
+    }
+
+    /**
+     * Retourne le nombre de copies effectuées depuis l'atlas
+     *
+     * @return nombre de copies
+     */
+    public static long getBlitCount() {
+        return blits.get();
+    }
+
+    /**
+     * Retourne l'image de l'atlas (construite si nécessaire)
+     *
+     * @return l'image de l'atlas
+     */
+    public static BufferedImage getImage() {
+        return ensureBuilt();
+    }
+}
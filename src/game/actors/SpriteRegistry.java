@@ -0,0 +1,76 @@
+package game.actors;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registre partagé des sprites (poids mouche).
+ * Chaque fichier .spr n'est lu qu'une seule fois, puis la même instance
+ * de {@link Sprite} est partagée par tous les acteurs qui l'utilisent.
+ */
+public final class SpriteRegistry {
+    private static final Map<String, Sprite> sprites = new ConcurrentHashMap<>(); // sprites déjà chargés
+    private static final LongAdder hits = new LongAdder(); // sprites trouvés dans le registre (parties en parallèle)
+    private static final LongAdder misses = new LongAdder(); // sprites lus depuis le disque
+
+    /**
+     * Classe utilitaire : pas d'instance
+     */
+    private SpriteRegistry() {
+    }
+
+    /**
+     * Retourne le sprite associé à un fichier, en le chargeant au premier appel
+     *
+     * @param filename le chemin du fichier sprite
+     * @return le sprite partagé
+     */
+    public static Sprite get(String filename) {
+        Sprite sprite = sprites.get(filename);
+        if (sprite != null) {
+            hits.increment();
+            return sprite;
+        }
+        return sprites.computeIfAbsent(filename, f -> {
+            misses.increment();
+            return new Sprite(f);
+        });
+    }
+
+    /**
+     * Retourne le nombre de sprites servis depuis le registre
+     *
+     * @return nombre de succès
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Retourne le nombre de sprites chargés depuis le disque
+     *
+     * @return nombre d'échecs
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Retourne le nombre de sprites actuellement chargés
+     *
+     * @return nombre de sprites
+     */
+    public static int size() {
+        return sprites.size();
+    }
+
+    /**
+     * Vide le registre et remet les compteurs à zéro
+     */
+    public static void clear() {
+        sprites.clear();
+        hits.reset();
+        misses.reset();
+    }
+}